@@ -0,0 +1,77 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.context.ApplicationContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.*;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.storage.*;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static ru.practicum.shareit.booking.model.Status.*;
+
+public class BenchmarkDataSeeder {
+    public static final String SEARCH_TEXT = "drill";
+
+    private final UserRepository userRepository;
+    private final ItemRequestRepository requestRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemSearchEngine searchEngine;
+
+    public BenchmarkDataSeeder(ApplicationContext context) {
+        this.userRepository = context.getBean(UserRepository.class);
+        this.requestRepository = context.getBean(ItemRequestRepository.class);
+        this.itemRepository = context.getBean(ItemRepository.class);
+        this.bookingRepository = context.getBean(BookingRepository.class);
+        this.commentRepository = context.getBean(CommentRepository.class);
+        this.searchEngine = context.getBean(ItemSearchEngine.class);
+    }
+
+    public SeededData seed(int items) {
+        User owner = userRepository.save(new User(null, "owner", "owner@mail.ru"));
+        User booker = userRepository.save(new User(null, "booker", "booker@mail.ru"));
+        LocalDateTime now = LocalDateTime.now();
+
+        List<ItemRequest> requests = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            requests.add(new ItemRequest(null, "need a " + SEARCH_TEXT + " " + i, booker, now.minusDays(30)
+                .plusMinutes(i)));
+        }
+        requests = requestRepository.saveAll(requests);
+
+        List<Item> savedItems = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            savedItems.add(new Item(null, SEARCH_TEXT + " " + i, "cordless " + SEARCH_TEXT, true, owner.getId(),
+                requests.get(i)));
+        }
+        savedItems = itemRepository.saveAll(savedItems);
+        savedItems.forEach(searchEngine::index);
+
+        List<Booking> bookings = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            Item item = savedItems.get(i);
+            bookings.add(new Booking(null, now.minusDays(20).plusMinutes(i), now.minusDays(19), item, booker,
+                APPROVED));
+            bookings.add(new Booking(null, now.minusDays(1).plusMinutes(i), now.plusDays(1), item, booker,
+                APPROVED));
+            bookings.add(new Booking(null, now.plusDays(10).plusMinutes(i), now.plusDays(11), item, booker,
+                WAITING));
+            bookings.add(new Booking(null, now.plusDays(20).plusMinutes(i), now.plusDays(21), item, booker,
+                REJECTED));
+            comments.add(new Comment(null, "works " + i, item, booker, now.minusDays(18)));
+        }
+        bookingRepository.saveAll(bookings);
+        commentRepository.saveAll(comments);
+
+        return new SeededData(owner.getId(), booker.getId(), SEARCH_TEXT);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.*;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingContentionBenchmark {
+    private static final LocalDateTime FIRST_START = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Param({"1", "16", "256"})
+    public int hotItems;
+
+    private BookingService bookingService;
+    private long ownerId;
+    private long bookerId;
+    private long[] itemIds;
+    private AtomicLongArray nextSlots;
+
+    @Setup(Level.Trial)
+    public void setUp(ShareItServerState server) {
+        bookingService = server.getBean(BookingService.class);
+        ItemRepository itemRepository = server.getBean(ItemRepository.class);
+        ownerId = server.getData().getOwnerId();
+        bookerId = server.getData().getBookerId();
+
+        itemIds = new long[hotItems];
+        for (int i = 0; i < hotItems; i++) {
+            itemIds[i] = itemRepository.save(new Item(null, "hot drill " + i, "cordless drill", true, ownerId, null))
+                .getId();
+        }
+        nextSlots = new AtomicLongArray(hotItems);
+    }
+
+    @Benchmark
+    public BookingDto save() {
+        return bookingService.save(bookerId, nextBooking());
+    }
+
+    @Benchmark
+    public BookingDto saveAndApprove() {
+        BookingDto booking = bookingService.save(bookerId, nextBooking());
+        return bookingService.approve(ownerId, booking.getId(), true);
+    }
+
+    private ShortBookingDto nextBooking() {
+        int item = ThreadLocalRandom.current().nextInt(hotItems);
+        LocalDateTime start = FIRST_START.plusHours(2 * nextSlots.getAndIncrement(item));
+
+        return ShortBookingDto.builder()
+            .start(start)
+            .end(start.plusHours(1))
+            .itemId(itemIds[item])
+            .build();
+    }
+}
\ No newline at end of file
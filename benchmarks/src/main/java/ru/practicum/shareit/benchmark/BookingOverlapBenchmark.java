@@ -0,0 +1,82 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.service.BookingIntervals;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BookingOverlapBenchmark {
+    private static final int PROBES = 1024;
+    private static final LocalDateTime FIRST_START = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private static final int LONG_PERIOD_EVERY = 100;
+    private static final long LONG_PERIOD_HOURS = 60 * 24;
+
+    @Param({"10000", "100000"})
+    public int bookings;
+
+    // "mixed" makes every hundredth period last 60 days, the rest a few hours
+    @Param({"short", "mixed"})
+    public String periodLengths;
+
+    private BookingIntervals intervals;
+    private List<LocalDateTime[]> periods;
+    private LocalDateTime[][] probes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        intervals = new BookingIntervals();
+        periods = new ArrayList<>(bookings);
+
+        long hours = 0;
+        for (int i = 0; i < bookings; i++) {
+            long length = periodLengths.equals("mixed") && i % LONG_PERIOD_EVERY == 0
+                ? LONG_PERIOD_HOURS
+                : 1 + random.nextInt(2);
+            LocalDateTime start = FIRST_START.plusHours(hours);
+            LocalDateTime end = start.plusHours(length);
+            intervals.add(i, start, end);
+            periods.add(new LocalDateTime[]{start, end});
+            hours += length + 1;
+        }
+
+        probes = new LocalDateTime[PROBES][];
+        for (int i = 0; i < PROBES; i++) {
+            LocalDateTime start = FIRST_START.plusHours((long) (random.nextDouble() * hours));
+            probes[i] = new LocalDateTime[]{start, start.plusHours(1)};
+        }
+    }
+
+    @Benchmark
+    public boolean intervalIndex() {
+        LocalDateTime[] probe = nextProbe();
+        return intervals.overlaps(probe[0], probe[1]);
+    }
+
+    @Benchmark
+    public boolean linearScan() {
+        LocalDateTime[] probe = nextProbe();
+
+        for (LocalDateTime[] period : periods) {
+            if (period[0].isBefore(probe[1]) && period[1].isAfter(probe[0])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private LocalDateTime[] nextProbe() {
+        next = (next + 1) & (PROBES - 1);
+        return probes[next];
+    }
+}
\ No newline at end of file
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingServiceBenchmark {
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    public String state;
+
+    @Param({"10", "100"})
+    public int size;
+
+    private BookingService bookingService;
+    private SeededData data;
+
+    @Setup(Level.Trial)
+    public void setUp(ShareItServerState server) {
+        bookingService = server.getBean(BookingService.class);
+        data = server.getData();
+    }
+
+    @Benchmark
+    public Collection<BookingDto> findByUserIdAndState() {
+        return bookingService.findByUserIdAndState(data.getBookerId(), state, 0, size);
+    }
+
+    @Benchmark
+    public Collection<BookingDto> findBookingsByItemOwnerId() {
+        return bookingService.findBookingsByItemOwnerId(data.getOwnerId(), state, 0, size);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+
+import java.lang.management.*;
+import java.net.URI;
+import java.net.http.*;
+import java.util.concurrent.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecutionModeBenchmark {
+    private static final long SAMPLE_MILLIS = 5;
+    private static final int CLIENT_THREADS = 8;
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"1000", "5000"})
+    public int requests;
+
+    @Param({"100"})
+    public int items;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+            .profiles("test")
+            .web(WebApplicationType.SERVLET)
+            .run(
+                "--server.port=0",
+                "--shareit.execution.mode=" + mode,
+                "--spring.datasource.url=jdbc:h2:mem:execution-" + System.nanoTime(),
+                "--logging.level.root=WARN"
+            );
+        SeededData data = new BenchmarkDataSeeder(context).seed(items);
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+
+        clientExecutor = Executors.newFixedThreadPool(CLIENT_THREADS);
+        client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(clientExecutor)
+            .build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/bookings/owner?state=ALL&size=10"))
+            .header("X-Sharer-User-Id", String.valueOf(data.getOwnerId()))
+            .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clientExecutor.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    public int concurrentRequests(Footprint footprint) throws Exception {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[requests];
+        for (int i = 0; i < requests; i++) {
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+        }
+
+        CompletableFuture<Void> done = CompletableFuture.allOf(responses);
+        do {
+            footprint.sample();
+        } while (!isDone(done));
+
+        return responses.length;
+    }
+
+    private static boolean isDone(CompletableFuture<Void> done) throws Exception {
+        try {
+            done.get(SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Footprint {
+        private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private volatile long peakPlatformThreads;
+        private volatile long peakHeapUsedMb;
+
+        @TearDown(Level.Trial)
+        public void report() {
+            System.out.printf("%nFootprint: peak platform threads %d, peak heap used %d MB%n",
+                peakPlatformThreads, peakHeapUsedMb);
+        }
+
+        void sample() {
+            peakPlatformThreads = Math.max(peakPlatformThreads, threads.getThreadCount());
+            peakHeapUsedMb = Math.max(peakHeapUsedMb, memory.getHeapMemoryUsage().getUsed() / (1024 * 1024));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemRequestServiceBenchmark {
+    @Param({"10", "100"})
+    public int size;
+
+    private ItemRequestService requestService;
+    private SeededData data;
+
+    @Setup(Level.Trial)
+    public void setUp(ShareItServerState server) {
+        requestService = server.getBean(ItemRequestService.class);
+        data = server.getData();
+    }
+
+    @Benchmark
+    public Collection<ItemRequestDto> findAllFromOtherUsers() {
+        return requestService.findAllFromOtherUsers(data.getOwnerId(), 0, size);
+    }
+}
\ No newline at end of file
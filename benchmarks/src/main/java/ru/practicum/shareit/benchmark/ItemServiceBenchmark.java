@@ -0,0 +1,38 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemServiceBenchmark {
+    @Param({"10", "100"})
+    public int size;
+
+    private ItemService itemService;
+    private SeededData data;
+
+    @Setup(Level.Trial)
+    public void setUp(ShareItServerState server) {
+        itemService = server.getBean(ItemService.class);
+        data = server.getData();
+    }
+
+    @Benchmark
+    public Collection<ItemDto> findAll() {
+        return itemService.findAll(data.getOwnerId(), 0, size);
+    }
+
+    @Benchmark
+    public Collection<ItemDto> search() {
+        return itemService.search(data.getBookerId(), data.getSearchText(), 0, size);
+    }
+}
\ No newline at end of file
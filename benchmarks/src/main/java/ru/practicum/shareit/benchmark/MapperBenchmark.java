@@ -0,0 +1,77 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.practicum.shareit.booking.dto.*;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.shareit.booking.model.Status.APPROVED;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+    private Booking booking;
+    private BookingListView bookingListView;
+    private Item item;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        User owner = new User(1L, "owner", "owner@mail.ru");
+        User booker = new User(2L, "booker", "booker@mail.ru");
+        ItemRequest request = new ItemRequest(1L, "need a drill", booker, LocalDateTime.now().minusDays(2));
+        item = new Item(1L, "drill", "cordless drill", true, owner.getId(), request);
+        booking = new Booking(1L, LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), item, booker,
+            APPROVED);
+        bookingListView = new SpelAwareProxyProjectionFactory().createProjection(BookingListView.class, Map.ofEntries(
+            Map.entry("id", booking.getId()),
+            Map.entry("startDate", booking.getStart()),
+            Map.entry("endDate", booking.getEnd()),
+            Map.entry("status", booking.getStatus()),
+            Map.entry("itemId", item.getId()),
+            Map.entry("itemName", item.getName()),
+            Map.entry("itemDescription", item.getDescription()),
+            Map.entry("itemAvailable", item.getAvailable()),
+            Map.entry("itemOwner", item.getOwner()),
+            Map.entry("bookerId", booker.getId()),
+            Map.entry("bookerName", booker.getName()),
+            Map.entry("bookerEmail", booker.getEmail())
+        ));
+    }
+
+    @Benchmark
+    public BookingDto bookingToBookingDto() {
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Benchmark
+    public BookingDto bookingListViewToBookingDto() {
+        return BookingMapper.toBookingDto(bookingListView);
+    }
+
+    @Benchmark
+    public ShortBookingDto bookingToShortBookingDto() {
+        return BookingMapper.toShortBookingDto(booking);
+    }
+
+    @Benchmark
+    public ItemDto itemToItemDto() {
+        return ItemMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public ItemDtoInRequest itemToItemDtoInRequest() {
+        return ItemMapper.toItemDtoInRequest(item);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.service.OwnerItemCountCache;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OwnerItemCountBenchmark {
+    private OwnerItemCountCache ownerItemCountCache;
+    private ItemRepository itemRepository;
+    private SeededData data;
+
+    @Setup(Level.Trial)
+    public void setUp(ShareItServerState server) {
+        ownerItemCountCache = server.getBean(OwnerItemCountCache.class);
+        itemRepository = server.getBean(ItemRepository.class);
+        data = server.getData();
+    }
+
+    @Benchmark
+    public boolean cachedHasItems() {
+        return ownerItemCountCache.hasItems(data.getOwnerId());
+    }
+
+    @Benchmark
+    public long countByOwner() {
+        return itemRepository.countByOwner(data.getOwnerId());
+    }
+}
\ No newline at end of file
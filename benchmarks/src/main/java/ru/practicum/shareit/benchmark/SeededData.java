@@ -0,0 +1,11 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.*;
+
+@Getter
+@AllArgsConstructor
+public class SeededData {
+    private Long ownerId;
+    private Long bookerId;
+    private String searchText;
+}
\ No newline at end of file
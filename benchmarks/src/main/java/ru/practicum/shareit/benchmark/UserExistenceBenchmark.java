@@ -0,0 +1,51 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.*;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserExistenceBenchmark {
+    private static final Map<String, Object> BYPASS_CACHE = Map.of(
+        "javax.persistence.cache.retrieveMode", CacheRetrieveMode.BYPASS);
+
+    private UserService userService;
+    private EntityManagerFactory entityManagerFactory;
+    private long userId;
+
+    @Setup(Level.Trial)
+    public void setUp(ShareItServerState server) {
+        userService = server.getBean(UserService.class);
+        entityManagerFactory = server.getBean(EntityManagerFactory.class);
+        userId = server.getData().getOwnerId();
+    }
+
+    @Benchmark
+    public User selectById() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.find(User.class, userId, BYPASS_CACHE);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public User secondLevelCache() {
+        return userService.getExistingUser(userId);
+    }
+
+    @Benchmark
+    public void idSet() {
+        userService.checkUserExists(userId);
+    }
+}
\ No newline at end of file
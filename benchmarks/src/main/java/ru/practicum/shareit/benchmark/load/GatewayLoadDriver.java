@@ -0,0 +1,154 @@
+package ru.practicum.shareit.benchmark.load;
+
+import lombok.*;
+
+import java.net.URI;
+import java.net.http.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+public class GatewayLoadDriver {
+    private static final List<String> SEARCH_WORDS = List.of("drill", "saw", "ladder", "tent", "bike", "camera",
+        "kayak", "projector", "hammer", "scooter", "guitar", "grill");
+    private static final List<String> STATES = List.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED");
+
+    private final String gatewayUrl;
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private final long users;
+    private final long items;
+    private final long randomSeed;
+    private final HttpClient client;
+    private final List<Endpoint> endpoints;
+    private final int totalWeight;
+    private final Map<String, LatencyRecorder> recorders = new ConcurrentHashMap<>();
+
+    public GatewayLoadDriver(Map<String, String> options) {
+        this.gatewayUrl = options.getOrDefault("gateway", "http://localhost:8080");
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        this.warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        this.duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+        this.users = Long.parseLong(options.getOrDefault("users", "1000"));
+        this.items = Long.parseLong(options.getOrDefault("items", "2000"));
+        this.randomSeed = Long.parseLong(options.getOrDefault("seed", "42"));
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        this.endpoints = List.of(
+            new Endpoint("GET /items/{id}", 25, random -> "/items/" + id(random, items)),
+            new Endpoint("GET /items", 15, random -> "/items?from=0&size=20"),
+            new Endpoint("GET /items/search", 15, random -> "/items/search?from=0&size=20&text=" +
+                SEARCH_WORDS.get(random.nextInt(SEARCH_WORDS.size()))),
+            new Endpoint("GET /bookings", 15, random -> "/bookings?from=0&size=20&state=" +
+                STATES.get(random.nextInt(STATES.size()))),
+            new Endpoint("GET /bookings/owner", 10, random -> "/bookings/owner?from=0&size=20&state=" +
+                STATES.get(random.nextInt(STATES.size()))),
+            new Endpoint("GET /requests/all", 10, random -> "/requests/all?from=0&size=20"),
+            new Endpoint("GET /users/{id}", 10, random -> "/users/" + id(random, users))
+        );
+        this.totalWeight = endpoints.stream().mapToInt(Endpoint::getWeight).sum();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(pair[0], pair.length > 1 ? pair[1] : "true");
+        }
+
+        new GatewayLoadDriver(options).run();
+    }
+
+    public void run() throws InterruptedException {
+        System.out.printf("Warming up %s for %ds with %d workers%n", gatewayUrl, warmup.getSeconds(), concurrency);
+        drive(warmup, false);
+        System.out.printf("Measuring for %ds%n", duration.getSeconds());
+        long started = System.nanoTime();
+        drive(duration, true);
+        report((System.nanoTime() - started) / 1_000_000_000.0);
+    }
+
+    private void drive(Duration period, boolean measured) throws InterruptedException {
+        long deadline = System.nanoTime() + period.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+
+        for (int worker = 0; worker < concurrency; worker++) {
+            Random random = new Random(randomSeed + worker);
+            workers.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    Endpoint endpoint = pick(random);
+                    long userId = id(random, users);
+                    long start = System.nanoTime();
+                    boolean success = send(endpoint.getPath().apply(random), userId);
+
+                    if (measured) {
+                        recorders.computeIfAbsent(endpoint.getName(), name -> new LatencyRecorder())
+                            .record(System.nanoTime() - start, success);
+                    }
+                }
+            });
+        }
+
+        workers.shutdown();
+        workers.awaitTermination(period.toSeconds() + 60, TimeUnit.SECONDS);
+    }
+
+    private boolean send(String path, long userId) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(gatewayUrl + path))
+            .header("X-Sharer-User-Id", String.valueOf(userId))
+            .timeout(Duration.ofSeconds(30))
+            .GET()
+            .build();
+
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void report(double seconds) {
+        System.out.printf("%-22s %10s %8s %10s %10s %10s%n", "endpoint", "requests", "errors", "req/s", "p50 ms",
+            "p99 ms");
+
+        for (Endpoint endpoint : endpoints) {
+            LatencyRecorder recorder = recorders.get(endpoint.getName());
+            if (recorder == null) {
+                continue;
+            }
+
+            LatencyRecorder.Snapshot snapshot = recorder.snapshot();
+            System.out.printf("%-22s %10d %8d %10.1f %10.2f %10.2f%n", endpoint.getName(), snapshot.getCount(),
+                snapshot.getErrors(), snapshot.getCount() / seconds, snapshot.percentileMillis(50),
+                snapshot.percentileMillis(99));
+        }
+    }
+
+    private Endpoint pick(Random random) {
+        int roll = random.nextInt(totalWeight);
+
+        for (Endpoint endpoint : endpoints) {
+            roll -= endpoint.getWeight();
+            if (roll < 0) {
+                return endpoint;
+            }
+        }
+
+        return endpoints.get(0);
+    }
+
+    private static long id(Random random, long max) {
+        return 1 + (long) (random.nextDouble() * max);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Endpoint {
+        private final String name;
+        private final int weight;
+        private final Function<Random, String> path;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.benchmark.load;
+
+import lombok.*;
+
+import java.util.Arrays;
+
+public class LatencyRecorder {
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+
+    public synchronized void record(long nanos, boolean success) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+
+        latencies[count++] = nanos;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    public synchronized Snapshot snapshot() {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+
+        return new Snapshot(sorted, errors);
+    }
+
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Snapshot {
+        private final long[] sorted;
+        @Getter
+        private final int errors;
+
+        public int getCount() {
+            return sorted.length;
+        }
+
+        public double percentileMillis(double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+
+            int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
\ No newline at end of file
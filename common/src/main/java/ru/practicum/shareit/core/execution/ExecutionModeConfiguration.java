@@ -0,0 +1,23 @@
+package ru.practicum.shareit.core.execution;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.*;
+
+/**
+ * Shared by the server ({@code shareit.execution.mode}) and the gateway ({@code shareit-gateway.execution.mode}),
+ * each of which sets only its own property.
+ */
+@Configuration
+@ConditionalOnExpression("'${shareit.execution.mode:${shareit-gateway.execution.mode:platform}}' == 'virtual'")
+@Slf4j
+public class ExecutionModeConfiguration {
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            log.info("Handling requests on virtual threads");
+            protocolHandler.setExecutor(VirtualThreads.newThreadPerTaskExecutor());
+        };
+    }
+}
\ No newline at end of file
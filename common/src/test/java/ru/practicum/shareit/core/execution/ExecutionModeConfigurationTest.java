@@ -0,0 +1,30 @@
+package ru.practicum.shareit.core.execution;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExecutionModeConfigurationTest {
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+        .withUserConfiguration(ExecutionModeConfiguration.class);
+
+    @Test
+    void configuration_whenServerModeVirtual_thenCustomizerRegistered() {
+        runner.withPropertyValues("shareit.execution.mode=virtual")
+            .run(context -> assertTrue(context.containsBean("virtualThreadProtocolHandlerCustomizer")));
+    }
+
+    @Test
+    void configuration_whenGatewayModeVirtual_thenCustomizerRegistered() {
+        runner.withPropertyValues("shareit-gateway.execution.mode=virtual")
+            .run(context -> assertTrue(context.containsBean("virtualThreadProtocolHandlerCustomizer")));
+    }
+
+    @Test
+    void configuration_whenModePlatformOrMissing_thenCustomizerAbsent() {
+        runner.run(context -> assertFalse(context.containsBean("virtualThreadProtocolHandlerCustomizer")));
+        runner.withPropertyValues("shareit-gateway.execution.mode=platform")
+            .run(context -> assertFalse(context.containsBean("virtualThreadProtocolHandlerCustomizer")));
+    }
+}
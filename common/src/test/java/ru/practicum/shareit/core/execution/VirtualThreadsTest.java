@@ -0,0 +1,32 @@
+package ru.practicum.shareit.core.execution;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+public class VirtualThreadsTest {
+    @Test
+    void newThreadPerTaskExecutor_whenSupported_thenTasksRunOnVirtualThreads() throws Exception {
+        assumeTrue(VirtualThreads.isSupported());
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor();
+
+        try {
+            String thread = executor.submit(() -> Thread.currentThread().toString()).get(5, TimeUnit.SECONDS);
+            assertTrue(thread.startsWith("VirtualThread"), thread);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void newThreadPerTaskExecutor_whenUnsupported_thenThrowsIllegalStateException() {
+        assumeFalse(VirtualThreads.isSupported());
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            VirtualThreads::newThreadPerTaskExecutor);
+        assertTrue(exception.getMessage().startsWith("Virtual threads require Java 21"));
+    }
+}
\ No newline at end of file
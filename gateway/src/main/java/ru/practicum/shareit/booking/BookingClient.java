@@ -1,13 +1,11 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.beans.factory.annotation.*;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.*;
-import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.*;
 import ru.practicum.shareit.core.QueryParametersInterface;
 
 import java.util.Map;
@@ -17,16 +15,22 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-            builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
-        );
+    public BookingClient(ServerTransport transport, RequestCoalescer coalescer, ResponseCache cache) {
+        super(transport, API_PREFIX, coalescer, cache);
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingStatus state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getBookings(long userId, BookingStatus state, Integer from, Integer size,
+        String after) {
+        if (after != null) {
+            Map<String, Object> parameters = Map.of(
+                QueryParametersInterface.STATE, state.name(),
+                QueryParametersInterface.SIZE, size,
+                QueryParametersInterface.AFTER, after
+            );
+
+            return get("?state={state}&size={size}&after={after}", userId, parameters);
+        }
+
         Map<String, Object> parameters = Map.of(
             QueryParametersInterface.STATE, state.name(),
             QueryParametersInterface.FROM, from,
@@ -36,7 +40,18 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getBookingsForOwner(long userId, BookingStatus state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getBookingsForOwner(long userId, BookingStatus state, Integer from, Integer size,
+        String after) {
+        if (after != null) {
+            Map<String, Object> parameters = Map.of(
+                QueryParametersInterface.STATE, state.name(),
+                QueryParametersInterface.SIZE, size,
+                QueryParametersInterface.AFTER, after
+            );
+
+            return get("/owner?state={state}&size={size}&after={after}", userId, parameters);
+        }
+
         Map<String, Object> parameters = Map.of(
             QueryParametersInterface.STATE, state.name(),
             QueryParametersInterface.FROM, from,
@@ -46,15 +61,17 @@ public class BookingClient extends BaseClient {
         return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> bookItem(long userId, ShortBookingRequestDto requestDto) {
-        return post("", userId, requestDto);
+    // the owner's view of an item shows its last and next bookings
+    public Mono<ResponseEntity<Object>> bookItem(long userId, ShortBookingRequestDto requestDto) {
+        return invalidating(post("", userId, requestDto), "/items/" + requestDto.getItemId());
     }
 
-    public ResponseEntity<Object> approveBooking(long userId, long bookingId, boolean approved) {
-        return patch("/" + bookingId + "?approved=" + approved, userId);
+    // only the owner approves, and the booking's item is unknown here
+    public Mono<ResponseEntity<Object>> approveBooking(long userId, long bookingId, boolean approved) {
+        return invalidatingForUser(patch("/" + bookingId + "?approved=" + approved, userId), "/items/", userId);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 }
\ No newline at end of file
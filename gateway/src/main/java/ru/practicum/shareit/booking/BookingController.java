@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.*;
 
 import javax.validation.Valid;
@@ -20,36 +21,40 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<Object>> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
         @RequestParam(name = "state", defaultValue = "all") String stateParam,
         @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-        @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+        @RequestParam(name = "after", required = false) String after) {
         BookingStatus state = BookingStatus.from(stateParam)
             .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, after={}", stateParam, userId, from, size,
+            after);
+        return bookingClient.getBookings(userId, state, from, size, after);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingsForOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<Object>> getBookingsForOwner(@RequestHeader("X-Sharer-User-Id") long userId,
         @RequestParam(name = "state", defaultValue = "all") String stateParam,
         @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-        @Positive @RequestParam(defaultValue = "10") int size) {
+        @Positive @RequestParam(defaultValue = "10") int size,
+        @RequestParam(required = false) String after) {
         BookingStatus state = BookingStatus.from(stateParam)
             .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookingsForOwner(userId, state, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, after={}", stateParam, userId, from, size,
+            after);
+        return bookingClient.getBookingsForOwner(userId, state, from, size, after);
     }
 
     @PostMapping
-    public ResponseEntity<Object> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<Object>> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
         @RequestBody @Valid ShortBookingRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.bookItem(userId, requestDto);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approveBooking(
+    public Mono<ResponseEntity<Object>> approveBooking(
         @RequestHeader("X-Sharer-User-Id") Long userId,
         @PathVariable Long bookingId,
         @RequestParam Boolean approved) {
@@ -57,7 +62,7 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
         @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
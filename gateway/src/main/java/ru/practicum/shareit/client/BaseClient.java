@@ -3,96 +3,167 @@ package ru.practicum.shareit.client;
 import java.util.List;
 import java.util.Map;
 
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 public class BaseClient {
-    protected final RestTemplate rest;
+    private static final List<String> NOT_MODIFIED_HEADERS = List.of(HttpHeaders.ETAG, HttpHeaders.CACHE_CONTROL,
+        HttpHeaders.EXPIRES, HttpHeaders.VARY);
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    protected final ServerTransport transport;
+    private final String apiPrefix;
+    private final RequestCoalescer coalescer;
+    @Nullable
+    private final ResponseCache cache;
+
+    public BaseClient(ServerTransport transport, String apiPrefix, RequestCoalescer coalescer) {
+        this(transport, apiPrefix, coalescer, null);
+    }
+
+    public BaseClient(ServerTransport transport, String apiPrefix, RequestCoalescer coalescer,
+        @Nullable ResponseCache cache) {
+        this.transport = transport;
+        this.apiPrefix = apiPrefix;
+        this.coalescer = coalescer;
+        this.cache = cache;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected Mono<ResponseEntity<Object>> cachedGet(String path, @Nullable Long userId) {
+        return cachedGet(path, userId, null);
+    }
+
+    /**
+     * A GET of a single small resource: served from the cache when fresh, otherwise joined with an identical call
+     * in flight. Both read the body into memory, so listings go through {@link #get} and stay streamed. A client
+     * whose {@code ifNoneMatch} names the current {@code ETag} gets {@code 304 Not Modified} without a body; the tag
+     * is compared here rather than forwarded, since joined callers may each hold a different version.
+     */
+    protected Mono<ResponseEntity<Object>> cachedGet(String path, @Nullable Long userId,
+        @Nullable String ifNoneMatch) {
+        return fetchCached(path, userId).map(response -> notModifiedIfMatches(response, ifNoneMatch));
+    }
+
+    private Mono<ResponseEntity<Object>> fetchCached(String path, @Nullable Long userId) {
+        if (cache == null) {
+            return coalescer.join(coalescingKey(path, userId), () ->
+                transport.exchange(HttpMethod.GET, apiPrefix + path, defaultHeaders(userId), null, null)
+                    .publishOn(Schedulers.boundedElastic())
+                    .map(BaseClient::prepareGatewayResponse));
+        }
+
+        ResponseCache.Lookup lookup = cache.lookup(apiPrefix + path, userId);
+        if (lookup.isFresh()) {
+            return Mono.just(lookup.getCached().toResponse());
+        }
+
+        HttpHeaders headers = defaultHeaders(userId);
+        if (lookup.getETag() != null) {
+            headers.setIfNoneMatch(lookup.getETag());
+        }
+
+        return coalescer.join(coalescingKey(path, userId), () ->
+            transport.exchange(HttpMethod.GET, lookup.getPath(), headers, null, null)
+                .publishOn(Schedulers.boundedElastic())
+                .map(response -> prepareGatewayResponse(cache.update(lookup, response))));
+    }
+
+    /**
+     * Drops cached responses for {@code path}, a full server path, once the mutation has completed.
+     */
+    protected Mono<ResponseEntity<Object>> invalidating(Mono<ResponseEntity<Object>> mutation, String path) {
+        if (cache == null) {
+            return mutation;
+        }
+
+        return mutation.doFinally(signal -> cache.invalidate(path));
+    }
+
+    /**
+     * Drops the responses cached for {@code userId} under {@code pathPrefix}, for mutations that change resources
+     * the gateway cannot name.
+     */
+    protected Mono<ResponseEntity<Object>> invalidatingForUser(Mono<ResponseEntity<Object>> mutation,
+        String pathPrefix, long userId) {
+        if (cache == null) {
+            return mutation;
+        }
+
+        return mutation.doFinally(signal -> cache.invalidateForUser(pathPrefix, userId));
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        return transport.exchange(method, apiPrefix + path, defaultHeaders(userId), parameters, body)
+            .map(BaseClient::prepareGatewayResponse);
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
-        }
-        return prepareGatewayResponse(shareitServerResponse);
+    private String coalescingKey(String path, @Nullable Long userId) {
+        return apiPrefix + path + "#" + (userId != null ? userId : "");
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -105,6 +176,42 @@ public class BaseClient {
         return headers;
     }
 
+    private static ResponseEntity<Object> notModifiedIfMatches(ResponseEntity<Object> response,
+        @Nullable String ifNoneMatch) {
+        String eTag = response.getHeaders().getETag();
+        if (ifNoneMatch == null || eTag == null || response.getStatusCode() != HttpStatus.OK
+            || !matches(ifNoneMatch, eTag)) {
+            return response;
+        }
+
+        ResponseCache.close(response);
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : NOT_MODIFIED_HEADERS) {
+            List<String> values = response.getHeaders().get(name);
+            if (values != null) {
+                headers.put(name, values);
+            }
+        }
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+    }
+
+    // weak comparison, as If-None-Match requires
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        HttpHeaders request = new HttpHeaders();
+        request.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+
+        for (String tag : request.getIfNoneMatch()) {
+            if (tag.equals("*") || opaque(tag).equals(opaque(eTag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
     private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
         if (response.getStatusCode().is2xxSuccessful()) {
             return response;
@@ -113,6 +220,10 @@ public class BaseClient {
         ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
 
         if (response.hasBody()) {
+            MediaType contentType = response.getHeaders().getContentType();
+            if (contentType != null) {
+                responseBuilder.contentType(contentType);
+            }
             return responseBuilder.body(response.getBody());
         }
 
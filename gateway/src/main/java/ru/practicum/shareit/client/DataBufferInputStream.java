@@ -0,0 +1,95 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.io.buffer.*;
+import reactor.core.publisher.Flux;
+
+import java.io.InputStream;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Reads a body as it arrives, a few buffers ahead. Buffers are released once read, and on close also those
+ * received but not read yet: cancelling the body does not give them back.
+ */
+class DataBufferInputStream extends InputStream {
+    private static final int PREFETCH = 4;
+
+    private final Stream<DataBuffer> buffers;
+    private final Iterator<DataBuffer> iterator;
+    private final Deque<DataBuffer> received = new ArrayDeque<>();
+    private boolean closed;
+    private DataBuffer current;
+
+    DataBufferInputStream(Flux<DataBuffer> body) {
+        this.buffers = body
+            .doOnNext(this::receive)
+            .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+            .toStream(PREFETCH);
+        this.iterator = buffers.iterator();
+    }
+
+    @Override
+    public int read() {
+        if (!advance()) {
+            return -1;
+        }
+        return current.read() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        if (!advance()) {
+            return -1;
+        }
+
+        int count = Math.min(length, current.readableByteCount());
+        current.read(bytes, offset, count);
+        return count;
+    }
+
+    @Override
+    public void close() {
+        releaseCurrent();
+        buffers.close();
+
+        synchronized (received) {
+            closed = true;
+            received.forEach(DataBufferUtils::release);
+            received.clear();
+        }
+    }
+
+    private boolean advance() {
+        while (current == null || current.readableByteCount() == 0) {
+            releaseCurrent();
+            if (!iterator.hasNext()) {
+                return false;
+            }
+            current = iterator.next();
+            synchronized (received) {
+                received.pollFirst();
+            }
+        }
+        return true;
+    }
+
+    private void receive(DataBuffer buffer) {
+        synchronized (received) {
+            if (closed) {
+                DataBufferUtils.release(buffer);
+            } else {
+                received.addLast(buffer);
+            }
+        }
+    }
+
+    private void releaseCurrent() {
+        if (current != null) {
+            DataBufferUtils.release(current);
+            current = null;
+        }
+    }
+}
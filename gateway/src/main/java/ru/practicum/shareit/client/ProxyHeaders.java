@@ -0,0 +1,28 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+
+final class ProxyHeaders {
+    private static final List<String> HOP_BY_HOP = List.of(
+        HttpHeaders.CONNECTION,
+        "Keep-Alive",
+        HttpHeaders.PROXY_AUTHENTICATE,
+        HttpHeaders.PROXY_AUTHORIZATION,
+        HttpHeaders.TE,
+        HttpHeaders.TRAILER,
+        HttpHeaders.TRANSFER_ENCODING,
+        HttpHeaders.UPGRADE
+    );
+
+    private ProxyHeaders() {
+    }
+
+    static HttpHeaders forward(HttpHeaders upstream) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(upstream);
+        HOP_BY_HOP.forEach(headers::remove);
+        return headers;
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+@Component
+public class RequestCoalescer {
+    private final boolean enabled;
+    private final ConcurrentMap<String, Mono<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter upstreamCalls;
+    private final Counter coalescedCalls;
+
+    @Autowired
+    public RequestCoalescer(@Value("${shareit-gateway.coalescing.enabled:true}") boolean enabled,
+        MeterRegistry registry) {
+        this.enabled = enabled;
+        this.upstreamCalls = Counter.builder("shareit.gateway.coalescing.requests")
+            .description("GET requests by whether they went upstream or joined an identical in-flight call")
+            .tag("result", "upstream")
+            .register(registry);
+        this.coalescedCalls = Counter.builder("shareit.gateway.coalescing.requests")
+            .description("GET requests by whether they went upstream or joined an identical in-flight call")
+            .tag("result", "coalesced")
+            .register(registry);
+        Gauge.builder("shareit.gateway.coalescing.ratio", this, RequestCoalescer::ratio)
+            .description("Share of GET requests served by joining an identical in-flight call")
+            .register(registry);
+        Gauge.builder("shareit.gateway.coalescing.in-flight", inFlight, ConcurrentMap::size)
+            .description("Distinct GET requests currently awaiting the server")
+            .register(registry);
+    }
+
+    /**
+     * Subscribers arriving while a call with the same key is in flight get its result instead of a call of their
+     * own; the call is only built for the first. The body is read into memory, since a streamed body can be consumed
+     * only once; the supplied call must therefore emit on a thread that may block.
+     */
+    Mono<ResponseEntity<Object>> join(String key, Supplier<Mono<ResponseEntity<Object>>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        return Mono.defer(() -> {
+            AtomicReference<Mono<ResponseEntity<Object>>> started = new AtomicReference<>();
+            Mono<ResponseEntity<Object>> shared = inFlight.computeIfAbsent(key, k -> {
+                started.set(call.get()
+                    .map(RequestCoalescer::buffered)
+                    .doFinally(signal -> inFlight.remove(key, started.get()))
+                    .cache());
+                return started.get();
+            });
+
+            if (shared != started.get()) {
+                coalescedCalls.increment();
+            } else {
+                upstreamCalls.increment();
+            }
+            return shared;
+        });
+    }
+
+    private double ratio() {
+        double coalesced = coalescedCalls.count();
+        double total = coalesced + upstreamCalls.count();
+
+        return total == 0 ? 0 : coalesced / total;
+    }
+
+    private static ResponseEntity<Object> buffered(ResponseEntity<Object> response) {
+        if (!(response.getBody() instanceof Resource)) {
+            return response;
+        }
+
+        return ResponseEntity.status(response.getStatusCode())
+            .headers(response.getHeaders())
+            .body(ResponseCache.read(response));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,243 @@
+package ru.practicum.shareit.client;
+
+import lombok.*;
+import org.springframework.core.io.Resource;
+import org.springframework.http.*;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+@Component
+public class ResponseCache {
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final int maxEntries;
+    private final Duration defaultTtl;
+    private final Map<String, CachedResponse> entries;
+    private final Map<String, Set<String>> keysByPath = new HashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLong sweeps = new AtomicLong();
+
+    public ResponseCache(ResponseCacheProperties properties) {
+        this.maxEntries = properties.getMaxEntries();
+        this.defaultTtl = properties.getDefaultTtl();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    Lookup lookup(String path, @Nullable Long userId) {
+        long generation = generations.get(stripe(path));
+        long sweep = sweeps.get();
+
+        synchronized (this) {
+            return new Lookup(path, key(path, userId), generation, sweep, entries.get(key(path, userId)));
+        }
+    }
+
+    ResponseEntity<Object> update(Lookup lookup, ResponseEntity<Object> response) {
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && lookup.getCached() != null) {
+            close(response);
+            CachedResponse refreshed = lookup.getCached().refresh(expiresAt(response.getHeaders()));
+            store(lookup, refreshed, response.getHeaders());
+            return refreshed.toResponse();
+        }
+
+        if (response.getStatusCode() != HttpStatus.OK) {
+            return response;
+        }
+
+        CachedResponse fetched = new CachedResponse(response.getHeaders(), read(response),
+            expiresAt(response.getHeaders()));
+        store(lookup, fetched, response.getHeaders());
+        return fetched.toResponse();
+    }
+
+    void invalidate(String path) {
+        generations.incrementAndGet(stripe(path));
+
+        synchronized (this) {
+            Set<String> keys = keysByPath.remove(path);
+            if (keys != null) {
+                keys.forEach(entries::remove);
+            }
+        }
+    }
+
+    void invalidateForUser(String pathPrefix, long userId) {
+        sweeps.incrementAndGet();
+        String suffix = key("", userId);
+
+        synchronized (this) {
+            Iterator<Map.Entry<String, Set<String>>> paths = keysByPath.entrySet().iterator();
+            while (paths.hasNext()) {
+                Map.Entry<String, Set<String>> path = paths.next();
+                if (!path.getKey().startsWith(pathPrefix)) {
+                    continue;
+                }
+
+                String key = path.getKey() + suffix;
+                if (path.getValue().remove(key)) {
+                    entries.remove(key);
+                    if (path.getValue().isEmpty()) {
+                        paths.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    private void store(Lookup lookup, CachedResponse response, HttpHeaders headers) {
+        Directives directives = Directives.parse(headers.getCacheControl());
+        boolean cacheable = !directives.noStore
+            && (response.isFresh() || response.getHeaders().getETag() != null);
+
+        synchronized (this) {
+            if (generations.get(stripe(lookup.getPath())) != lookup.getGeneration()
+                || sweeps.get() != lookup.getSweep()) {
+                return;
+            }
+            if (!cacheable) {
+                remove(lookup.getKey());
+                return;
+            }
+
+            entries.put(lookup.getKey(), response);
+            keysByPath.computeIfAbsent(lookup.getPath(), path -> new HashSet<>()).add(lookup.getKey());
+            evictEldest();
+        }
+    }
+
+    private void evictEldest() {
+        Iterator<String> keys = entries.keySet().iterator();
+
+        while (entries.size() > maxEntries && keys.hasNext()) {
+            String key = keys.next();
+            keys.remove();
+            unindex(key);
+        }
+    }
+
+    private void remove(String key) {
+        if (entries.remove(key) != null) {
+            unindex(key);
+        }
+    }
+
+    private void unindex(String key) {
+        String path = key.substring(0, key.lastIndexOf('#'));
+        Set<String> keys = keysByPath.get(path);
+
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            keysByPath.remove(path);
+        }
+    }
+
+    private long expiresAt(HttpHeaders headers) {
+        Directives directives = Directives.parse(headers.getCacheControl());
+        Duration ttl = directives.noCache ? Duration.ZERO
+            : directives.maxAge != null ? directives.maxAge : defaultTtl;
+
+        return System.nanoTime() + ttl.toNanos();
+    }
+
+    static byte[] read(ResponseEntity<Object> response) {
+        try (InputStream body = ((Resource) Objects.requireNonNull(response.getBody())).getInputStream()) {
+            return body.readAllBytes();
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error reading server response: " + e.getMessage(), e);
+        }
+    }
+
+    static void close(ResponseEntity<Object> response) {
+        if (response.getBody() instanceof Resource) {
+            try {
+                ((Resource) response.getBody()).getInputStream().close();
+            } catch (IOException ignored) {
+                // the connection is discarded by the pool
+            }
+        }
+    }
+
+    private static String key(String path, @Nullable Long userId) {
+        return path + "#" + (userId != null ? userId : "");
+    }
+
+    private static int stripe(String path) {
+        return Math.floorMod(path.hashCode(), GENERATION_STRIPES);
+    }
+
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    static class Lookup {
+        private final String path;
+        private final String key;
+        private final long generation;
+        private final long sweep;
+        @Nullable
+        private final CachedResponse cached;
+
+        boolean isFresh() {
+            return cached != null && cached.isFresh();
+        }
+
+        @Nullable
+        String getETag() {
+            return cached != null ? cached.getHeaders().getETag() : null;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class CachedResponse {
+        private final HttpHeaders headers;
+        private final byte[] body;
+        private final long expiresAt;
+
+        boolean isFresh() {
+            return System.nanoTime() - expiresAt < 0;
+        }
+
+        CachedResponse refresh(long expiresAt) {
+            return new CachedResponse(headers, body, expiresAt);
+        }
+
+        ResponseEntity<Object> toResponse() {
+            return ResponseEntity.ok().headers(headers).body(body);
+        }
+    }
+
+    private static class Directives {
+        private boolean noStore;
+        private boolean noCache;
+        private Duration maxAge;
+
+        static Directives parse(@Nullable String header) {
+            Directives directives = new Directives();
+
+            if (header == null) {
+                return directives;
+            }
+
+            for (String directive : header.toLowerCase(Locale.ROOT).split(",")) {
+                String value = directive.trim();
+
+                if (value.equals("no-store")) {
+                    directives.noStore = true;
+                } else if (value.equals("no-cache")) {
+                    directives.noCache = true;
+                } else if (value.startsWith("max-age=")) {
+                    try {
+                        directives.maxAge = Duration.ofSeconds(Long.parseLong(value.substring(8)));
+                    } catch (NumberFormatException e) {
+                        directives.noCache = true;
+                    }
+                }
+            }
+            return directives;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.client;
+
+import lombok.*;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "shareit-gateway.cache")
+public class ResponseCacheProperties {
+    private int maxEntries = 10_000;
+    private Duration defaultTtl = Duration.ZERO;
+}
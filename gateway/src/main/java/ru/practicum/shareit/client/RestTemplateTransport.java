@@ -0,0 +1,87 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.impl.client.HttpClients;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.*;
+import org.springframework.http.client.*;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.*;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+
+import java.io.*;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@ConditionalOnProperty(name = "shareit-gateway.client.mode", havingValue = "blocking", matchIfMissing = true)
+public class RestTemplateTransport implements ServerTransport {
+    private final RestTemplate rest;
+
+    @Autowired
+    public RestTemplateTransport(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+        ClientProperties properties) {
+        this.rest = builder
+            .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
+            .requestFactory(() -> requestFactory(properties))
+            .build();
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String uri, HttpHeaders headers,
+        @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        return Mono.fromCallable(() -> send(method, uri, new HttpEntity<>(body, headers), parameters));
+    }
+
+    private ResponseEntity<Object> send(HttpMethod method, String uri, HttpEntity<Object> requestEntity,
+        @Nullable Map<String, Object> parameters) {
+        URI url = parameters != null
+            ? rest.getUriTemplateHandler().expand(uri, parameters)
+            : rest.getUriTemplateHandler().expand(uri);
+
+        try {
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(url, method);
+            rest.httpEntityCallback(requestEntity).doWithRequest(request);
+            ClientHttpResponse response = request.execute();
+            return ResponseEntity.status(response.getRawStatusCode())
+                .headers(ProxyHeaders.forward(response.getHeaders()))
+                .body(new InputStreamResource(responseBody(response)));
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on " + method + " request for \"" + url + "\": "
+                + e.getMessage(), e);
+        }
+    }
+
+    private static InputStream responseBody(ClientHttpResponse response) throws IOException {
+        try {
+            return new FilterInputStream(response.getBody()) {
+                @Override
+                public void close() {
+                    response.close();
+                }
+            };
+        } catch (IOException e) {
+            response.close();
+            throw e;
+        }
+    }
+
+    private static HttpComponentsClientHttpRequestFactory requestFactory(ClientProperties properties) {
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(
+            HttpClients.custom()
+                .setMaxConnTotal(properties.getMaxConnections())
+                .setMaxConnPerRoute(properties.getMaxConnections())
+                .evictIdleConnections(properties.getMaxIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+                .build()
+        );
+        factory.setConnectTimeout((int) properties.getConnectTimeout().toMillis());
+        factory.setReadTimeout((int) properties.getResponseTimeout().toMillis());
+        factory.setConnectionRequestTimeout((int) properties.getPendingAcquireTimeout().toMillis());
+        return factory;
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.*;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+public interface ServerTransport {
+    Mono<ResponseEntity<Object>> exchange(HttpMethod method, String uri, HttpHeaders headers,
+        @Nullable Map<String, Object> parameters, @Nullable Object body);
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.*;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.Map;
+
+@Component
+@ConditionalOnProperty(name = "shareit-gateway.client.mode", havingValue = "reactive")
+public class WebClientTransport implements ServerTransport, DisposableBean {
+    private final ConnectionProvider connectionProvider;
+    private final WebClient webClient;
+
+    @Autowired
+    public WebClientTransport(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+        ClientProperties properties) {
+        this.connectionProvider = ConnectionProvider.builder("shareit-server")
+            .maxConnections(properties.getMaxConnections())
+            .pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+            .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+            .maxIdleTime(properties.getMaxIdleTime())
+            .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+            .responseTimeout(properties.getResponseTimeout());
+        this.webClient = builder
+            .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl))
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .build();
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String uri, HttpHeaders headers,
+        @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        WebClient.RequestBodySpec request = parameters != null
+            ? webClient.method(method).uri(uri, parameters)
+            : webClient.method(method).uri(uri);
+        request.headers(requestHeaders -> requestHeaders.addAll(headers));
+
+        if (body != null) {
+            request.bodyValue(body);
+        }
+
+        return request.retrieve()
+            .onStatus(status -> true, response -> Mono.empty())
+            .toEntityFlux(DataBuffer.class)
+            .map(response -> ResponseEntity.status(response.getStatusCode())
+                .headers(ProxyHeaders.forward(response.getHeaders()))
+                .body(new InputStreamResource(new DataBufferInputStream(response.getBody()))));
+    }
+
+    @Override
+    public void destroy() {
+        connectionProvider.dispose();
+    }
+}
@@ -5,4 +5,6 @@ public interface QueryParametersInterface {
     String SIZE = "size";
     String STATE = "state";
     String TEXT = "text";
+    String AFTER = "after";
+    String TO = "to";
 }
\ No newline at end of file
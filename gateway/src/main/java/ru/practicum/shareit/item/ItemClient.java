@@ -1,15 +1,15 @@
 package ru.practicum.shareit.item;
 
-import org.springframework.beans.factory.annotation.*;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
-import ru.practicum.shareit.client.BaseClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.*;
 import ru.practicum.shareit.core.QueryParametersInterface;
 import ru.practicum.shareit.item.dto.*;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Service
@@ -17,24 +17,24 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-            builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
-        );
+    public ItemClient(ServerTransport transport, RequestCoalescer coalescer, ResponseCache cache) {
+        super(transport, API_PREFIX, coalescer, cache);
     }
 
-    public ResponseEntity<Object> saveItem(long userId, ItemRequestDto dto) {
-        return post("", userId, dto);
+    public Mono<ResponseEntity<Object>> saveItem(long userId, ItemRequestDto dto) {
+        if (dto.getRequestId() == null) {
+            return post("", userId, dto);
+        }
+
+        // the request lists the items answering it
+        return invalidating(post("", userId, dto), "/requests/" + dto.getRequestId());
     }
 
-    public ResponseEntity<Object> saveComment(long userId, long itemId, CommentRequestDto dto) {
-        return post("/" + itemId + "/comment", userId, dto);
+    public Mono<ResponseEntity<Object>> saveComment(long userId, long itemId, CommentRequestDto dto) {
+        return invalidating(post("/" + itemId + "/comment", userId, dto), API_PREFIX + "/" + itemId);
     }
 
-    public ResponseEntity<Object> getItems(long userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> getItems(long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
             QueryParametersInterface.FROM, from,
             QueryParametersInterface.SIZE, size
@@ -43,15 +43,33 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemById(long userId, long itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> getItemById(long userId, long itemId) {
+        return getItemById(userId, itemId, null);
+    }
+
+    public Mono<ResponseEntity<Object>> getItemById(long userId, long itemId, @Nullable String ifNoneMatch) {
+        return cachedGet("/" + itemId, userId, ifNoneMatch);
+    }
+
+    public Mono<ResponseEntity<Object>> getAvailability(long userId, long itemId, LocalDateTime from,
+                                                        LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+            QueryParametersInterface.FROM, from,
+            QueryParametersInterface.TO, to
+        );
+
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getAvailability(long userId, AvailabilityRequestDto dto) {
+        return post("/availability", userId, dto);
     }
 
-    public ResponseEntity<Object> updateItem(long userId, long itemId, ItemRequestDto dto) {
-        return patch("/" + itemId, userId, dto);
+    public Mono<ResponseEntity<Object>> updateItem(long userId, long itemId, ItemRequestDto dto) {
+        return invalidating(patch("/" + itemId, userId, dto), API_PREFIX + "/" + itemId);
     }
 
-    public ResponseEntity<Object> search(long userId, String text, int from, int size) {
+    public Mono<ResponseEntity<Object>> search(long userId, String text, int from, int size) {
         Map<String, Object> parameters = Map.of(
             QueryParametersInterface.TEXT, text,
             QueryParametersInterface.FROM, from,
@@ -2,14 +2,18 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.*;
 
 import javax.validation.Valid;
 import javax.validation.constraints.*;
+import java.time.LocalDateTime;
 
 @Controller
 @RequestMapping(path = "/items")
@@ -20,7 +24,7 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> save(
+    public Mono<ResponseEntity<Object>> save(
         @RequestHeader("X-Sharer-User-Id") Long userId,
         @Valid @RequestBody ItemRequestDto dto) {
         log.info("Creating item {}, userId {}", dto, userId);
@@ -28,7 +32,7 @@ public class ItemController {
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> save(
+    public Mono<ResponseEntity<Object>> save(
         @RequestHeader("X-Sharer-User-Id") Long userId,
         @PathVariable Long itemId,
         @Valid @RequestBody CommentRequestDto dto) {
@@ -36,8 +40,15 @@ public class ItemController {
         return itemClient.saveComment(userId, itemId, dto);
     }
 
+    @PostMapping("/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@RequestHeader("X-Sharer-User-Id") Long userId,
+        @Valid @RequestBody AvailabilityRequestDto dto) {
+        log.info("Get availability of {} items from {} to {}", dto.getItemIds().size(), dto.getFrom(), dto.getTo());
+        return itemClient.getAvailability(userId, dto);
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> update(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> update(@RequestHeader("X-Sharer-User-Id") Long userId,
         @PathVariable Long itemId,
         @RequestBody ItemRequestDto dto) {
         log.info("Updating item with id {}", itemId);
@@ -45,13 +56,23 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> findById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long itemId) {
+    public Mono<ResponseEntity<Object>> findById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long itemId,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Get item with id {}", itemId);
-        return itemClient.getItemById(userId, itemId);
+        return itemClient.getItemById(userId, itemId, ifNoneMatch);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@RequestHeader("X-Sharer-User-Id") Long userId,
+        @PathVariable Long itemId,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Get availability of item with id {} from {} to {}", itemId, from, to);
+        return itemClient.getAvailability(userId, itemId, from, to);
     }
 
     @GetMapping
-    public ResponseEntity<Object> findAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> findAll(@RequestHeader("X-Sharer-User-Id") Long userId,
         @PositiveOrZero @RequestParam(defaultValue = "0", required = false) Integer from,
         @Positive @RequestParam(defaultValue = "10", required = false) Integer size) {
         log.info("Get all items, userId {}", userId);
@@ -59,7 +80,7 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> search(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> search(@RequestHeader("X-Sharer-User-Id") Long userId,
         @RequestParam String text,
         @PositiveOrZero @RequestParam(defaultValue = "0", required = false) Integer from,
         @Positive @RequestParam(defaultValue = "10", required = false) Integer size) {
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.*;
+
+import javax.validation.constraints.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class AvailabilityRequestDto {
+    @NotEmpty
+    @Size(max = 500)
+    private List<@NotNull @Positive Long> itemIds;
+    @NotNull
+    private LocalDateTime from;
+    @NotNull
+    private LocalDateTime to;
+}
\ No newline at end of file
@@ -1,12 +1,11 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.beans.factory.annotation.*;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
-import ru.practicum.shareit.client.BaseClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.*;
 import ru.practicum.shareit.core.QueryParametersInterface;
 import ru.practicum.shareit.request.dto.RequestDto;
 
@@ -17,28 +16,27 @@ public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-            builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
-        );
+    public RequestClient(ServerTransport transport, RequestCoalescer coalescer, ResponseCache cache) {
+        super(transport, API_PREFIX, coalescer, cache);
     }
 
-    public ResponseEntity<Object> save(long userId, RequestDto dto) {
+    public Mono<ResponseEntity<Object>> save(long userId, RequestDto dto) {
         return post("", userId, dto);
     }
 
-    public ResponseEntity<Object> findById(long userId, long requestId) {
-        return get("/" + requestId, userId);
+    public Mono<ResponseEntity<Object>> findById(long userId, long requestId) {
+        return findById(userId, requestId, null);
+    }
+
+    public Mono<ResponseEntity<Object>> findById(long userId, long requestId, @Nullable String ifNoneMatch) {
+        return cachedGet("/" + requestId, userId, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> findAll(long userId) {
+    public Mono<ResponseEntity<Object>> findAll(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> findAllFromOtherUsers(long userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> findAllFromOtherUsers(long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
             QueryParametersInterface.FROM, from,
             QueryParametersInterface.SIZE, size
@@ -1,12 +1,11 @@
 package ru.practicum.shareit.user;
 
-import org.springframework.beans.factory.annotation.*;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
-import ru.practicum.shareit.client.BaseClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.*;
 import ru.practicum.shareit.user.dto.UserRequestDto;
 
 @Service
@@ -14,32 +13,31 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-            builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
-        );
+    public UserClient(ServerTransport transport, RequestCoalescer coalescer, ResponseCache cache) {
+        super(transport, API_PREFIX, coalescer, cache);
     }
 
-    public ResponseEntity<Object> getUsers() {
+    public Mono<ResponseEntity<Object>> getUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> getUserById(long id) {
-        return get("/" + id);
+    public Mono<ResponseEntity<Object>> getUserById(long id) {
+        return getUserById(id, null);
     }
 
-    public ResponseEntity<Object> save(UserRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> getUserById(long id, @Nullable String ifNoneMatch) {
+        return cachedGet("/" + id, null, ifNoneMatch);
+    }
+
+    public Mono<ResponseEntity<Object>> save(UserRequestDto requestDto) {
         return post("", requestDto);
     }
 
-    public ResponseEntity<Object> update(UserRequestDto requestDto, long userId) {
-        return patch("/" + userId, requestDto);
+    public Mono<ResponseEntity<Object>> update(UserRequestDto requestDto, long userId) {
+        return invalidating(patch("/" + userId, requestDto), API_PREFIX + "/" + userId);
     }
 
-    public ResponseEntity<Object> delete(long userId) {
-        return delete("/" + userId);
+    public Mono<ResponseEntity<Object>> delete(long userId) {
+        return invalidating(delete("/" + userId), API_PREFIX + "/" + userId);
     }
 }
\ No newline at end of file
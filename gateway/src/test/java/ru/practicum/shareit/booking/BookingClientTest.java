@@ -0,0 +1,67 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.ShortBookingRequestDto;
+import ru.practicum.shareit.client.*;
+import ru.practicum.shareit.item.ItemClient;
+
+import java.time.*;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BookingClientTest {
+    private ServerTransport transport;
+    private BookingClient bookingClient;
+    private ItemClient itemClient;
+
+    @BeforeEach
+    void beforeEach() {
+        transport = mock(ServerTransport.class);
+        when(transport.exchange(any(), anyString(), any(), any(), any())).thenAnswer(invocation ->
+            Mono.just(ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(1)))
+                .body(new ByteArrayResource("{}".getBytes()))));
+        ResponseCache cache = new ResponseCache(new ResponseCacheProperties());
+        RequestCoalescer coalescer = new RequestCoalescer(false, new SimpleMeterRegistry());
+        bookingClient = new BookingClient(transport, coalescer, cache);
+        itemClient = new ItemClient(transport, coalescer, cache);
+    }
+
+    @Test
+    void bookItem_whenCompleted_thenCachedItemDropped() {
+        getItem(1L, 1L);
+        getItem(1L, 2L);
+
+        bookingClient.bookItem(2L, new ShortBookingRequestDto(LocalDateTime.now().plusDays(1),
+            LocalDateTime.now().plusDays(2), 1L)).block();
+        getItem(1L, 1L);
+        getItem(1L, 2L);
+
+        verify(transport, times(2)).exchange(eq(HttpMethod.GET), eq("/items/1"), any(), any(), any());
+        verify(transport, times(1)).exchange(eq(HttpMethod.GET), eq("/items/2"), any(), any(), any());
+    }
+
+    @Test
+    void approveBooking_whenCompleted_thenOwnersCachedItemsDropped() {
+        getItem(1L, 1L);
+        getItem(1L, 2L);
+        getItem(2L, 1L);
+
+        bookingClient.approveBooking(1L, 5L, true).block();
+        getItem(1L, 1L);
+        getItem(1L, 2L);
+        getItem(2L, 1L);
+
+        verify(transport, times(3)).exchange(eq(HttpMethod.GET), eq("/items/1"), any(), any(), any());
+        verify(transport, times(2)).exchange(eq(HttpMethod.GET), eq("/items/2"), any(), any(), any());
+    }
+
+    private void getItem(long userId, long itemId) {
+        itemClient.getItemById(userId, itemId).block();
+    }
+}
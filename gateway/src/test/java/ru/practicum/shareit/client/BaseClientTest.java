@@ -0,0 +1,86 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.core.io.*;
+import org.springframework.http.*;
+import reactor.core.publisher.*;
+import reactor.util.function.Tuple2;
+
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BaseClientTest {
+    private ServerTransport transport;
+    private Sinks.One<ResponseEntity<Object>> upstream;
+    private BaseClient client;
+
+    @BeforeEach
+    void beforeEach() {
+        transport = mock(ServerTransport.class);
+        upstream = Sinks.one();
+        when(transport.exchange(any(), anyString(), any(), any(), any())).thenReturn(upstream.asMono());
+        client = new BaseClient(transport, "/items", new RequestCoalescer(true, new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void get_whenListingRequestedTwice_thenEachStreamedFromItsOwnCall() {
+        Resource body = new ByteArrayResource("[]".getBytes());
+        Map<String, Object> parameters = Map.of("from", 0, "size", 10);
+
+        Mono<ResponseEntity<Object>> first = client.get("?from={from}&size={size}", 2L, parameters);
+        Mono<ResponseEntity<Object>> second = client.get("?from={from}&size={size}", 2L, parameters);
+        upstream.tryEmitValue(ResponseEntity.ok(body));
+
+        assertSame(body, first.block().getBody());
+        assertSame(body, second.block().getBody());
+        verify(transport, times(2)).exchange(eq(HttpMethod.GET), eq("/items?from={from}&size={size}"), any(),
+            eq(parameters), isNull());
+    }
+
+    @Test
+    void cachedGet_whenIdenticalRequestInFlight_thenJoined() throws Exception {
+        CompletableFuture<Tuple2<ResponseEntity<Object>, ResponseEntity<Object>>> responses =
+            Mono.zip(client.cachedGet("/1", 2L), client.cachedGet("/1", 2L)).toFuture();
+        upstream.tryEmitValue(ResponseEntity.ok(new ByteArrayResource("{}".getBytes())));
+
+        assertArrayEquals("{}".getBytes(), (byte[]) responses.get(5, TimeUnit.SECONDS).getT2().getBody());
+        verify(transport, times(1)).exchange(eq(HttpMethod.GET), eq("/items/1"), any(), isNull(), isNull());
+    }
+
+    @Test
+    void cachedGet_whenIfNoneMatchEqualsUpstreamETag_thenNotModifiedWithoutBody() {
+        Mono<ResponseEntity<Object>> response = client.cachedGet("/1", 2L, "\"item-1-3\"");
+        upstream.tryEmitValue(ResponseEntity.ok().eTag("\"item-1-3\"").body(new ByteArrayResource("{}".getBytes())));
+
+        ResponseEntity<Object> actual = response.block();
+        assertEquals(HttpStatus.NOT_MODIFIED, actual.getStatusCode());
+        assertEquals("\"item-1-3\"", actual.getHeaders().getETag());
+        assertFalse(actual.hasBody());
+    }
+
+    @Test
+    void cachedGet_whenIfNoneMatchEqualsCachedETag_thenNotModifiedWithoutCallingServer() {
+        client = new BaseClient(transport, "/items", new RequestCoalescer(true, new SimpleMeterRegistry()),
+            new ResponseCache(new ResponseCacheProperties()));
+        upstream.tryEmitValue(ResponseEntity.ok()
+            .eTag("\"item-1-3\"")
+            .cacheControl(CacheControl.maxAge(1, TimeUnit.MINUTES))
+            .body(new ByteArrayResource("{}".getBytes())));
+        client.cachedGet("/1", 2L).block();
+
+        ResponseEntity<Object> notModified = client.cachedGet("/1", 2L, "\"item-1-2\", W/\"item-1-3\"").block();
+        ResponseEntity<Object> changed = client.cachedGet("/1", 2L, "\"item-1-2\"").block();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertFalse(notModified.hasBody());
+        assertEquals("max-age=60", notModified.getHeaders().getCacheControl());
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertArrayEquals("{}".getBytes(), (byte[]) changed.getBody());
+        verify(transport, times(1)).exchange(any(), anyString(), any(), any(), any());
+    }
+}
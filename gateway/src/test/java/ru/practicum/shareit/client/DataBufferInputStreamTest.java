@@ -0,0 +1,70 @@
+package ru.practicum.shareit.client;
+
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.*;
+import org.springframework.core.io.buffer.*;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataBufferInputStreamTest {
+    private final NettyDataBufferFactory factory = new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT);
+    private final List<DataBuffer> emitted = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void read_whenBodySpansBuffers_thenBytesInOrderAndEveryBufferReleased() throws IOException {
+        try (DataBufferInputStream stream = new DataBufferInputStream(body("ab", "", "cde", "f"))) {
+            assertEquals('a', stream.read());
+            byte[] bytes = new byte[8];
+            assertEquals(1, stream.read(bytes, 0, 8));
+            assertEquals('b', bytes[0]);
+            assertEquals(0, stream.read(bytes, 0, 0));
+            assertEquals("cdef", new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+            assertEquals(-1, stream.read());
+            assertEquals(-1, stream.read(bytes, 0, 8));
+        }
+
+        assertEquals(4, emitted.size());
+        emitted.forEach(buffer -> assertEquals(0, refCount(buffer)));
+    }
+
+    @Test
+    void close_whenPartlyRead_thenHeldBuffersReleasedAndBodyCancelled() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        DataBufferInputStream stream = new DataBufferInputStream(
+            body("a", "b", "c", "d", "e", "f", "g", "h").doOnCancel(() -> cancelled.set(true)));
+
+        assertEquals('a', stream.read());
+        stream.close();
+
+        assertTrue(cancelled.get());
+        assertFalse(emitted.isEmpty());
+        emitted.forEach(buffer -> assertEquals(0, refCount(buffer)));
+    }
+
+    @Test
+    void read_whenBodyFails_thenErrorRaisedAndBuffersReleased() {
+        DataBufferInputStream stream = new DataBufferInputStream(
+            body("ab", "cd").concatWith(Flux.error(new IllegalStateException("connection reset"))));
+
+        RuntimeException error = assertThrows(RuntimeException.class, stream::read);
+        assertEquals("connection reset", error.getMessage());
+        stream.close();
+        emitted.forEach(buffer -> assertEquals(0, refCount(buffer)));
+    }
+
+    private Flux<DataBuffer> body(String... chunks) {
+        return Flux.fromArray(chunks)
+            .map(chunk -> (DataBuffer) factory.allocateBuffer(chunk.length() + 1).write(chunk.getBytes(StandardCharsets.UTF_8)))
+            .doOnNext(emitted::add);
+    }
+
+    private static int refCount(DataBuffer buffer) {
+        return ((NettyDataBuffer) buffer).getNativeBuffer().refCnt();
+    }
+}
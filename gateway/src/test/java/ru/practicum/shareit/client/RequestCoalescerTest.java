@@ -0,0 +1,127 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.*;
+import reactor.core.Disposable;
+import reactor.core.publisher.*;
+
+import java.util.concurrent.atomic.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestCoalescerTest {
+    private SimpleMeterRegistry registry;
+    private RequestCoalescer coalescer;
+    private AtomicInteger upstreamCalls;
+    private Sinks.One<ResponseEntity<Object>> upstream;
+
+    @BeforeEach
+    void beforeEach() {
+        registry = new SimpleMeterRegistry();
+        coalescer = new RequestCoalescer(true, registry);
+        upstreamCalls = new AtomicInteger();
+        upstream = Sinks.one();
+    }
+
+    @Test
+    void join_whenIdenticalCallInFlight_thenSingleUpstreamCallShared() {
+        AtomicReference<ResponseEntity<Object>> first = new AtomicReference<>();
+        AtomicReference<ResponseEntity<Object>> second = new AtomicReference<>();
+
+        join("/items/1#2").subscribe(first::set);
+        join("/items/1#2").subscribe(second::set);
+        assertEquals(1.0, gauge("shareit.gateway.coalescing.in-flight"));
+        upstream.tryEmitValue(ResponseEntity.ok("item"));
+
+        assertEquals("item", first.get().getBody());
+        assertSame(first.get(), second.get());
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1.0, count("coalesced"));
+        assertEquals(0.5, gauge("shareit.gateway.coalescing.ratio"));
+        assertEquals(0.0, gauge("shareit.gateway.coalescing.in-flight"));
+    }
+
+    @Test
+    void join_whenKeysDiffer_thenSeparateUpstreamCalls() {
+        join("/items/1#2").subscribe();
+        join("/items/1#3").subscribe();
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(0.0, count("coalesced"));
+    }
+
+    @Test
+    void join_whenCallFails_thenErrorSharedAndNextCallGoesUpstream() {
+        AtomicReference<Throwable> first = new AtomicReference<>();
+        AtomicReference<Throwable> second = new AtomicReference<>();
+
+        join("/items/1#2").subscribe(response -> fail("no response expected"), first::set);
+        join("/items/1#2").subscribe(response -> fail("no response expected"), second::set);
+        upstream.tryEmitError(new IllegalStateException("server down"));
+
+        assertEquals("server down", first.get().getMessage());
+        assertSame(first.get(), second.get());
+
+        upstream = Sinks.one();
+        join("/items/1#2").subscribe();
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void join_whenOneSubscriberCancels_thenOthersStillServed() {
+        AtomicReference<ResponseEntity<Object>> remaining = new AtomicReference<>();
+
+        Disposable cancelled = join("/items/1#2").subscribe(response -> fail("cancelled subscriber served"));
+        join("/items/1#2").subscribe(remaining::set);
+        cancelled.dispose();
+        upstream.tryEmitValue(ResponseEntity.ok("item"));
+
+        assertEquals("item", remaining.get().getBody());
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(0.0, gauge("shareit.gateway.coalescing.in-flight"));
+    }
+
+    @Test
+    void join_whenBodyStreamed_thenReadOnceForEverySubscriber() {
+        AtomicReference<ResponseEntity<Object>> first = new AtomicReference<>();
+        AtomicReference<ResponseEntity<Object>> second = new AtomicReference<>();
+
+        join("/items/1#2").subscribe(first::set);
+        join("/items/1#2").subscribe(second::set);
+        upstream.tryEmitValue(ResponseEntity.status(HttpStatus.NOT_FOUND)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(new ByteArrayResource("{\"error\":\"missing\"}".getBytes())));
+
+        assertEquals(HttpStatus.NOT_FOUND, second.get().getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, second.get().getHeaders().getContentType());
+        assertArrayEquals("{\"error\":\"missing\"}".getBytes(), (byte[]) first.get().getBody());
+        assertSame(first.get().getBody(), second.get().getBody());
+    }
+
+    @Test
+    void join_whenDisabled_thenEveryCallGoesUpstream() {
+        coalescer = new RequestCoalescer(false, new SimpleMeterRegistry());
+
+        join("/items/1#2").subscribe();
+        join("/items/1#2").subscribe();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    private Mono<ResponseEntity<Object>> join(String key) {
+        return coalescer.join(key, () -> {
+            upstreamCalls.incrementAndGet();
+            return upstream.asMono();
+        });
+    }
+
+    private double count(String result) {
+        return registry.counter("shareit.gateway.coalescing.requests", "result", result).count();
+    }
+
+    private double gauge(String name) {
+        return registry.get(name).gauge().value();
+    }
+}
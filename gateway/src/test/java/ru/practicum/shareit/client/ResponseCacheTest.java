@@ -0,0 +1,146 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.*;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.*;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseCacheTest {
+    private ResponseCacheProperties properties;
+    private ResponseCache cache;
+
+    @BeforeEach
+    void beforeEach() {
+        properties = new ResponseCacheProperties();
+        properties.setMaxEntries(2);
+        cache = new ResponseCache(properties);
+    }
+
+    @Test
+    void update_whenMaxAgeGiven_thenServedFreshWithoutServer() {
+        ResponseEntity<Object> stored = cache.update(cache.lookup("/items/1", 2L), ok("max-age=60", null));
+
+        ResponseCache.Lookup lookup = cache.lookup("/items/1", 2L);
+        assertTrue(lookup.isFresh());
+        assertArrayEquals("item".getBytes(), (byte[]) lookup.getCached().toResponse().getBody());
+        assertArrayEquals("item".getBytes(), (byte[]) stored.getBody());
+        assertNull(cache.lookup("/items/1", 3L).getCached());
+    }
+
+    @Test
+    void update_whenNoCacheOrMalformedMaxAge_thenStoredForRevalidationOnly() {
+        cache.update(cache.lookup("/items/1", 2L), ok("no-cache", "\"v1\""));
+        cache.update(cache.lookup("/items/2", 2L), ok("max-age=soon", "\"v1\""));
+
+        ResponseCache.Lookup noCache = cache.lookup("/items/1", 2L);
+        assertFalse(noCache.isFresh());
+        assertEquals("\"v1\"", noCache.getETag());
+        assertFalse(cache.lookup("/items/2", 2L).isFresh());
+    }
+
+    @Test
+    void update_whenNoStoreOrNeitherFreshNorTagged_thenNotStored() {
+        cache.update(cache.lookup("/items/1", 2L), ok("no-store, max-age=60", "\"v1\""));
+        cache.update(cache.lookup("/items/2", 2L), ok(null, null));
+
+        assertNull(cache.lookup("/items/1", 2L).getCached());
+        assertNull(cache.lookup("/items/2", 2L).getCached());
+    }
+
+    @Test
+    void update_whenNoCacheControl_thenDefaultTtlUsed() {
+        properties.setDefaultTtl(Duration.ofMinutes(1));
+        cache = new ResponseCache(properties);
+
+        cache.update(cache.lookup("/items/1", 2L), ok(null, null));
+
+        assertTrue(cache.lookup("/items/1", 2L).isFresh());
+    }
+
+    @Test
+    void update_whenNotModified_thenCachedBodyServedAndFreshnessRenewed() {
+        cache.update(cache.lookup("/items/1", 2L), ok("no-cache", "\"v1\""));
+        ResponseCache.Lookup stale = cache.lookup("/items/1", 2L);
+
+        ResponseEntity<Object> revalidated = cache.update(stale, ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .cacheControl(CacheControl.maxAge(Duration.ofMinutes(1)))
+            .build());
+
+        assertEquals(HttpStatus.OK, revalidated.getStatusCode());
+        assertArrayEquals("item".getBytes(), (byte[]) revalidated.getBody());
+        assertEquals("\"v1\"", revalidated.getHeaders().getETag());
+        assertTrue(cache.lookup("/items/1", 2L).isFresh());
+    }
+
+    @Test
+    void update_whenNotModifiedWithoutCachedEntry_thenPassedThrough() {
+        ResponseEntity<Object> notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+
+        assertSame(notModified, cache.update(cache.lookup("/items/1", 2L), notModified));
+        assertNull(cache.lookup("/items/1", 2L).getCached());
+    }
+
+    @Test
+    void update_whenPathInvalidatedWhileInFlight_thenResponseServedButNotStored() {
+        ResponseCache.Lookup lookup = cache.lookup("/items/1", 2L);
+        cache.invalidate("/items/1");
+
+        ResponseEntity<Object> response = cache.update(lookup, ok("max-age=60", null));
+
+        assertArrayEquals("item".getBytes(), (byte[]) response.getBody());
+        assertNull(cache.lookup("/items/1", 2L).getCached());
+    }
+
+    @Test
+    void invalidate_whenPathCachedForSeveralUsers_thenAllDropped() {
+        cache.update(cache.lookup("/items/1", 2L), ok("max-age=60", null));
+        cache.update(cache.lookup("/items/1", 3L), ok("max-age=60", null));
+
+        cache.invalidate("/items/1");
+
+        assertNull(cache.lookup("/items/1", 2L).getCached());
+        assertNull(cache.lookup("/items/1", 3L).getCached());
+    }
+
+    @Test
+    void invalidateForUser_whenUserMutates_thenOnlyTheirEntriesUnderPrefixDropped() {
+        cache.update(cache.lookup("/items/1", 1L), ok("max-age=60", null));
+        cache.update(cache.lookup("/items/1", 2L), ok("max-age=60", null));
+        ResponseCache.Lookup inFlight = cache.lookup("/users/1", null);
+
+        cache.invalidateForUser("/items/", 1L);
+        cache.update(inFlight, ok("max-age=60", null));
+
+        assertNull(cache.lookup("/items/1", 1L).getCached());
+        assertTrue(cache.lookup("/items/1", 2L).isFresh());
+        assertNull(cache.lookup("/users/1", null).getCached());
+    }
+
+    @Test
+    void update_whenMaxEntriesExceeded_thenLeastRecentlyUsedEvicted() {
+        cache.update(cache.lookup("/items/1", 2L), ok("max-age=60", null));
+        cache.update(cache.lookup("/items/2", 2L), ok("max-age=60", null));
+        cache.lookup("/items/1", 2L);
+
+        cache.update(cache.lookup("/items/3", 2L), ok("max-age=60", null));
+
+        assertTrue(cache.lookup("/items/1", 2L).isFresh());
+        assertNull(cache.lookup("/items/2", 2L).getCached());
+        assertTrue(cache.lookup("/items/3", 2L).isFresh());
+    }
+
+    private static ResponseEntity<Object> ok(String cacheControl, String eTag) {
+        HttpHeaders headers = new HttpHeaders();
+        if (cacheControl != null) {
+            headers.setCacheControl(cacheControl);
+        }
+        if (eTag != null) {
+            headers.setETag(eTag);
+        }
+
+        return ResponseEntity.ok().headers(headers).body(new ByteArrayResource("item".getBytes()));
+    }
+}
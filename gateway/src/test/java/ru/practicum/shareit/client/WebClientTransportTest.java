@@ -0,0 +1,113 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.*;
+import org.springframework.core.io.Resource;
+import org.springframework.http.*;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WebClientTransportTest {
+    private static final byte[] LARGE_BODY = new byte[1 << 20];
+
+    private HttpServer server;
+    private WebClientTransport transport;
+    private final AtomicReference<String> requestLine = new AtomicReference<>();
+    private final AtomicReference<String> requestBody = new AtomicReference<>();
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        new Random(7).nextBytes(LARGE_BODY);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/items", exchange -> {
+            requestLine.set(exchange.getRequestMethod() + " " + exchange.getRequestURI()
+                + " " + exchange.getRequestHeaders().getFirst("X-Sharer-User-Id"));
+            requestBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            byte[] body = "{\"error\":\"Вещь не найдена.\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.getResponseHeaders().set("ETag", "\"item-1\"");
+            exchange.sendResponseHeaders(404, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/large", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(LARGE_BODY);
+            } catch (IOException ignored) {
+                // the client closed the stream early
+            }
+        });
+        server.start();
+
+        ClientProperties properties = new ClientProperties();
+        properties.setMaxConnections(1);
+        properties.setPendingAcquireTimeout(Duration.ofSeconds(2));
+        transport = new WebClientTransport("http://localhost:" + server.getAddress().getPort(), WebClient.builder(),
+            properties);
+    }
+
+    @AfterEach
+    void afterEach() {
+        transport.destroy();
+        server.stop(0);
+    }
+
+    @Test
+    void exchange_whenServerAnswersError_thenStatusHeadersAndBodyPassedThrough() throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Sharer-User-Id", "2");
+
+        ResponseEntity<Object> response = transport.exchange(HttpMethod.PATCH, "/items/{id}", headers,
+            Map.of("id", 1), Map.of("name", "drill")).block();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("\"item-1\"", response.getHeaders().getETag());
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.TRANSFER_ENCODING));
+        assertEquals("{\"error\":\"Вещь не найдена.\"}", read(response));
+        assertEquals("PATCH /items/1 2", requestLine.get());
+        assertEquals("{\"name\":\"drill\"}", requestBody.get());
+    }
+
+    @Test
+    void exchange_whenBodyLarge_thenStreamedAcrossBuffersIntact() throws IOException {
+        ResponseEntity<Object> response = transport.exchange(HttpMethod.GET, "/large", new HttpHeaders(), null, null)
+            .block();
+
+        try (InputStream body = ((Resource) response.getBody()).getInputStream()) {
+            assertArrayEquals(LARGE_BODY, body.readAllBytes());
+        }
+    }
+
+    @Test
+    void exchange_whenBodyClosedEarly_thenConnectionReturnedToPool() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            ResponseEntity<Object> response = transport.exchange(HttpMethod.GET, "/large", new HttpHeaders(), null,
+                null).block(Duration.ofSeconds(5));
+
+            try (InputStream body = ((Resource) response.getBody()).getInputStream()) {
+                assertEquals(LARGE_BODY[0] & 0xFF, body.read());
+            }
+        }
+
+        ResponseEntity<Object> response = transport.exchange(HttpMethod.GET, "/items/1", new HttpHeaders(), null, null)
+            .block(Duration.ofSeconds(5));
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    private static String read(ResponseEntity<Object> response) throws IOException {
+        try (InputStream body = ((Resource) response.getBody()).getInputStream()) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
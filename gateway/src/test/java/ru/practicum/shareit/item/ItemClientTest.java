@@ -0,0 +1,57 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.*;
+import ru.practicum.shareit.item.dto.ItemRequestDto;
+import ru.practicum.shareit.request.RequestClient;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ItemClientTest {
+    private ServerTransport transport;
+    private ItemClient itemClient;
+    private RequestClient requestClient;
+
+    @BeforeEach
+    void beforeEach() {
+        transport = mock(ServerTransport.class);
+        when(transport.exchange(any(), anyString(), any(), any(), any())).thenAnswer(invocation ->
+            Mono.just(ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(1)))
+                .body(new ByteArrayResource("{}".getBytes()))));
+        ResponseCache cache = new ResponseCache(new ResponseCacheProperties());
+        RequestCoalescer coalescer = new RequestCoalescer(false, new SimpleMeterRegistry());
+        itemClient = new ItemClient(transport, coalescer, cache);
+        requestClient = new RequestClient(transport, coalescer, cache);
+    }
+
+    @Test
+    void saveItem_whenAnsweringRequest_thenCachedRequestDropped() {
+        requestClient.findById(1L, 3L).block();
+        requestClient.findById(1L, 4L).block();
+
+        itemClient.saveItem(2L, new ItemRequestDto("drill", "cordless drill", true, 3L)).block();
+        requestClient.findById(1L, 3L).block();
+        requestClient.findById(1L, 4L).block();
+
+        verify(transport, times(2)).exchange(eq(HttpMethod.GET), eq("/requests/3"), any(), any(), any());
+        verify(transport, times(1)).exchange(eq(HttpMethod.GET), eq("/requests/4"), any(), any(), any());
+    }
+
+    @Test
+    void saveItem_whenNoRequest_thenCachedRequestsKept() {
+        requestClient.findById(1L, 3L).block();
+
+        itemClient.saveItem(2L, new ItemRequestDto("drill", "cordless drill", true, null)).block();
+        requestClient.findById(1L, 3L).block();
+
+        verify(transport, times(1)).exchange(eq(HttpMethod.GET), eq("/requests/3"), any(), any(), any());
+    }
+}
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.booking.dto.*;
 import ru.practicum.shareit.booking.service.BookingServiceInterface;
 
@@ -12,29 +14,45 @@ import java.util.Collection;
 @RequiredArgsConstructor
 public class BookingController {
     private final BookingServiceInterface bookingServiceInterface;
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     @GetMapping("/owner")
-    public Collection<BookingDto> findAllByUserId(
+    public ResponseEntity<Collection<BookingDto>> findAllByUserId(
         @RequestHeader("X-Sharer-User-Id") Long userId,
         @RequestParam(name = "state", defaultValue = "ALL") String state,
         @RequestParam(defaultValue = "0", required = false) Integer from,
-        @RequestParam(defaultValue = "10", required = false) Integer size
+        @RequestParam(defaultValue = "10", required = false) Integer size,
+        @RequestParam(required = false) String after
     ) {
-        return bookingServiceInterface.findBookingsByItemOwnerId(userId, state, from, size);
+        Collection<BookingDto> bookings = after == null
+            ? bookingServiceInterface.findBookingsByItemOwnerId(userId, state, from, size)
+            : bookingServiceInterface.findBookingsByItemOwnerIdAfter(userId, state, after, size);
+
+        return withNextCursor(bookings, size);
     }
 
     @GetMapping
-    public Collection<BookingDto> findByUserIdAndState(
+    public ResponseEntity<Collection<BookingDto>> findByUserIdAndState(
         @RequestHeader("X-Sharer-User-Id") Long userId,
         @RequestParam(name = "state", defaultValue = "ALL") String state,
         @RequestParam(defaultValue = "0", required = false) Integer from,
-        @RequestParam(defaultValue = "10", required = false) Integer size
+        @RequestParam(defaultValue = "10", required = false) Integer size,
+        @RequestParam(required = false) String after
     ) {
-        return bookingServiceInterface.findByUserIdAndState(userId, state, from, size);
+        Collection<BookingDto> bookings = after == null
+            ? bookingServiceInterface.findByUserIdAndState(userId, state, from, size)
+            : bookingServiceInterface.findByUserIdAndStateAfter(userId, state, after, size);
+
+        return withNextCursor(bookings, size);
     }
 
     @GetMapping("/{bookingId}")
-    public BookingDto findById(@PathVariable Long bookingId, @RequestHeader("X-Sharer-User-Id") Long userId) {
+    public BookingDto findById(@PathVariable Long bookingId, @RequestHeader("X-Sharer-User-Id") Long userId,
+        WebRequest request) {
+        if (request.checkNotModified(bookingServiceInterface.getETag(bookingId, userId))) {
+            return null;
+        }
+
         return bookingServiceInterface.findById(bookingId, userId);
     }
 
@@ -51,4 +69,18 @@ public class BookingController {
     ) {
         return bookingServiceInterface.approve(userId, bookingId, approved);
     }
+
+    private ResponseEntity<Collection<BookingDto>> withNextCursor(Collection<BookingDto> bookings, int size) {
+        if (bookings.isEmpty() || bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+
+        BookingDto last = bookings.stream()
+            .reduce((first, second) -> second)
+            .orElseThrow();
+
+        return ResponseEntity.ok()
+            .header(NEXT_CURSOR_HEADER, BookingCursor.encode(last))
+            .body(bookings);
+    }
 }
\ No newline at end of file
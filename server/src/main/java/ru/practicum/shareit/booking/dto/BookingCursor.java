@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.*;
+import ru.practicum.shareit.core.exception.exceptions.BookingBadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+@Getter
+@AllArgsConstructor
+public class BookingCursor {
+    private static final String SEPARATOR = "_";
+
+    private LocalDateTime start;
+    private Long id;
+
+    public static String encode(BookingDto booking) {
+        String value = booking.getStart() + SEPARATOR + booking.getId();
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookingCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+
+            return new BookingCursor(
+                LocalDateTime.parse(value.substring(0, separator)),
+                Long.parseLong(value.substring(separator + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new BookingBadRequestException("Некорректный курсор пагинации: " + token);
+        }
+    }
+}
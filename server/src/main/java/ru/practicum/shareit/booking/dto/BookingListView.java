@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+
+public interface BookingListView {
+    Long getId();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+
+    Status getStatus();
+
+    Long getItemId();
+
+    String getItemName();
+
+    String getItemDescription();
+
+    Boolean getItemAvailable();
+
+    Long getItemOwner();
+
+    Long getBookerId();
+
+    String getBookerName();
+
+    String getBookerEmail();
+
+    Long getRequestId();
+
+    String getRequestDescription();
+
+    LocalDateTime getRequestCreated();
+
+    Long getRequesterId();
+
+    String getRequesterName();
+
+    String getRequesterEmail();
+}
\ No newline at end of file
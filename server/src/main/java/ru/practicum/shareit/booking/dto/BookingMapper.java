@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking.dto;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 @Component
@@ -18,6 +19,45 @@ public class BookingMapper {
             .build();
     }
 
+    public static BookingDto toBookingDto(BookingListView view) {
+        return BookingDto.builder()
+            .id(view.getId())
+            .start(view.getStartDate())
+            .end(view.getEndDate())
+            .item(Item.builder()
+                .id(view.getItemId())
+                .name(view.getItemName())
+                .description(view.getItemDescription())
+                .available(view.getItemAvailable())
+                .owner(view.getItemOwner())
+                .request(toItemRequest(view))
+                .build())
+            .booker(User.builder()
+                .id(view.getBookerId())
+                .name(view.getBookerName())
+                .email(view.getBookerEmail())
+                .build())
+            .status(view.getStatus())
+            .build();
+    }
+
+    private static ItemRequest toItemRequest(BookingListView view) {
+        if (view.getRequestId() == null) {
+            return null;
+        }
+
+        return ItemRequest.builder()
+            .id(view.getRequestId())
+            .description(view.getRequestDescription())
+            .created(view.getRequestCreated())
+            .requester(User.builder()
+                .id(view.getRequesterId())
+                .name(view.getRequesterName())
+                .email(view.getRequesterEmail())
+                .build())
+            .build();
+    }
+
     public static Booking toBookingFromBookingDto(BookingDto dto) {
         return Booking.builder()
             .id(dto.getId())
@@ -58,4 +98,14 @@ public class BookingMapper {
             .bookerId(dto.getBooker().getId())
             .build();
     }
+
+    public static ShortBookingDto toShortBookingDto(ShortBookingView view) {
+        return ShortBookingDto.builder()
+            .id(view.getId())
+            .start(view.getStartDate())
+            .end(view.getEndDate())
+            .itemId(view.getItemId())
+            .bookerId(view.getBookerId())
+            .build();
+    }
 }
\ No newline at end of file
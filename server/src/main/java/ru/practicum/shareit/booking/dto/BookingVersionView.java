@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+public interface BookingVersionView {
+    Long getBookerId();
+
+    Long getItemOwner();
+
+    Long getVersion();
+
+    Long getItemVersion();
+
+    Long getBookerVersion();
+
+    Long getRequestVersion();
+
+    Long getRequesterVersion();
+}
\ No newline at end of file
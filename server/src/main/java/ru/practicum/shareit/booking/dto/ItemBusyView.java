@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.dto;
+
+public interface ItemBusyView {
+    Long getItemId();
+
+    Boolean getAvailable();
+
+    Long getBusy();
+}
\ No newline at end of file
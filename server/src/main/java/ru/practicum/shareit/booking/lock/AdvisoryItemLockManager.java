@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking.lock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.core.transaction.AttemptLock;
+
+/**
+ * PostgreSQL transaction-level advisory locks, shared by every instance on the same database. The lock lives in
+ * the lock table only, not on a row, so readers and writers of items are never blocked by it.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.booking.lock-mode", havingValue = "advisory")
+@RequiredArgsConstructor
+public class AdvisoryItemLockManager implements ItemLockManager {
+    static final int ITEM_LOCK_SPACE = 0x53484954;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public AttemptLock forItem(long itemId) {
+        return AttemptLock.NONE;
+    }
+
+    @Override
+    public void lockInTransaction(long itemId) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Item lock requires a transaction");
+        }
+
+        jdbcTemplate.query("select pg_advisory_xact_lock(?, ?)", resultSet -> {
+        }, ITEM_LOCK_SPACE, (int) (itemId ^ itemId >>> 32));
+    }
+
+    @Override
+    public boolean isShared() {
+        return true;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.lock;
+
+import ru.practicum.shareit.core.transaction.AttemptLock;
+
+/**
+ * Serializes changes to the bookings of one item. The lock is held from before a transaction begins, or from its
+ * start for locks that live in the database, until that transaction completes, so whatever was checked under it
+ * is committed before the next holder looks.
+ */
+public interface ItemLockManager {
+    /**
+     * The lock to take around a whole transaction, see {@link ru.practicum.shareit.core.transaction.OptimisticRetry}.
+     */
+    AttemptLock forItem(long itemId);
+
+    /**
+     * Called first inside the transaction. Locks that only exist within a transaction are taken here.
+     */
+    default void lockInTransaction(long itemId) {
+    }
+
+    /**
+     * Whether the lock also excludes other instances. Their bookings are unknown to in-memory state here, so checks
+     * made under it have to ask the database.
+     */
+    default boolean isShared() {
+        return false;
+    }
+}
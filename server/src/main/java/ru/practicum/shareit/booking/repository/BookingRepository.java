@@ -3,57 +3,219 @@ package ru.practicum.shareit.booking.repository;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.*;
 import ru.practicum.shareit.booking.model.*;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByBookerId(Long bookerId, Pageable pageable);
+    String BOOKING_LIST_VIEW = "select b.id as id, b.start as startDate, b.end as endDate, b.status as status, " +
+        "i.id as itemId, i.name as itemName, i.description as itemDescription, i.available as itemAvailable, " +
+        "i.owner as itemOwner, u.id as bookerId, u.name as bookerName, u.email as bookerEmail, " +
+        "r.id as requestId, r.description as requestDescription, r.created as requestCreated, " +
+        "ru.id as requesterId, ru.name as requesterName, ru.email as requesterEmail " +
+        "from Booking b join b.item i join b.booker u left join i.request r left join r.requester ru ";
 
-    List<Booking> findByBookerIdAndStatus(Long bookerId, Status status, Pageable pageable);
+    @Query(BOOKING_LIST_VIEW +
+        "where b.booker.id = ?1 ")
+    List<BookingListView> findByBookerId(Long userId, Pageable pageable);
 
-    List<Booking> findByBookerIdAndEndIsBefore(Long bookerId, LocalDateTime end, Pageable pageable);
+    @Query(BOOKING_LIST_VIEW +
+        "where b.booker.id = ?1 " +
+        "and b.status = ?2 ")
+    List<BookingListView> findByBookerIdAndStatus(Long userId, Status status, Pageable pageable);
 
-    List<Booking> findByBookerIdAndStartIsAfter(Long bookerId, LocalDateTime start, Pageable pageable);
+    @Query(BOOKING_LIST_VIEW +
+        "where b.booker.id = ?1 " +
+        "and b.end < ?2 ")
+    List<BookingListView> findByBookerIdAndEndIsBefore(Long userId, LocalDateTime end, Pageable pageable);
 
-    @Query("select b from Booking b " +
+    @Query(BOOKING_LIST_VIEW +
+        "where b.booker.id = ?1 " +
+        "and b.start > ?2 ")
+    List<BookingListView> findByBookerIdAndStartIsAfter(Long userId, LocalDateTime start, Pageable pageable);
+
+    @Query(BOOKING_LIST_VIEW +
         "where b.booker.id = ?1 " +
         "and b.start < ?2 " +
         "and b.end > ?2 ")
-    List<Booking> findByBookerIdCurrent(Long bookerId, LocalDateTime now, Pageable pageable);
+    List<BookingListView> findByBookerIdCurrent(Long userId, LocalDateTime now, Pageable pageable);
 
-    List<Booking> findBookingsByItemOwner(Long userId, Pageable pageable);
+    @Query(BOOKING_LIST_VIEW +
+        "where i.owner = ?1 ")
+    List<BookingListView> findBookingsByItemOwner(Long userId, Pageable pageable);
 
-    List<Booking> findBookingsByItemOwnerAndStatus(Long userId, Status status, Pageable pageable);
+    @Query(BOOKING_LIST_VIEW +
+        "where i.owner = ?1 " +
+        "and b.status = ?2 ")
+    List<BookingListView> findBookingsByItemOwnerAndStatus(Long userId, Status status, Pageable pageable);
 
-    List<Booking> findBookingsByItemOwnerAndEndIsBefore(Long userId, LocalDateTime end, Pageable pageable);
+    @Query(BOOKING_LIST_VIEW +
+        "where i.owner = ?1 " +
+        "and b.end < ?2 ")
+    List<BookingListView> findBookingsByItemOwnerAndEndIsBefore(Long userId, LocalDateTime end, Pageable pageable);
 
-    List<Booking> findBookingsByItemOwnerAndStartIsAfter(Long userId, LocalDateTime start, Pageable pageable);
+    @Query(BOOKING_LIST_VIEW +
+        "where i.owner = ?1 " +
+        "and b.start > ?2 ")
+    List<BookingListView> findBookingsByItemOwnerAndStartIsAfter(Long userId, LocalDateTime start, Pageable pageable);
 
-    @Query("select b from Booking b " +
-        "where b.item.id = ?1 " +
+    @Query(BOOKING_LIST_VIEW +
+        "where i.owner = ?1 " +
         "and b.start < ?2 " +
-        "order by b.start desc")
-    List<Booking> findBookingByItemIdAndStartBefore(Long itemId, LocalDateTime now);
+        "and b.end > ?2 ")
+    List<BookingListView> findBookingsByItemOwnerCurrent(Long userId, LocalDateTime now, Pageable pageable);
 
-    @Query("select b from Booking b " +
-        "where b.item.id = ?1 " +
-        "and b.start > ?2 " +
-        "order by b.start asc")
-    List<Booking> findBookingByItemIdAndStartAfter(Long itemId, LocalDateTime now);
+    @Query(BOOKING_LIST_VIEW +
+        "where b.booker.id = ?1 " +
+        "and b.start <= ?2 " +
+        "and (b.start < ?2 or b.id < ?3) ")
+    List<BookingListView> findByBookerIdBeforeCursor(Long userId, LocalDateTime start, Long id, Pageable pageable);
 
-    @Query("select b from Booking b " +
-        "where b.item.owner = ?1 " +
-        "and b.start < ?2 " +
-        "and b.end > ?2 " +
-        "order by b.start asc")
-    List<Booking> findBookingsByItemOwnerCurrent(Long userId, LocalDateTime now, Pageable pageable);
+    @Query(BOOKING_LIST_VIEW +
+        "where b.booker.id = ?1 " +
+        "and b.start <= ?2 " +
+        "and (b.start < ?2 or b.id < ?3) " +
+        "and b.start < ?4 " +
+        "and b.end > ?4 ")
+    List<BookingListView> findByBookerIdCurrentBeforeCursor(Long userId, LocalDateTime start, Long id,
+        LocalDateTime now, Pageable pageable);
+
+    @Query(BOOKING_LIST_VIEW +
+        "where b.booker.id = ?1 " +
+        "and b.start <= ?2 " +
+        "and (b.start < ?2 or b.id < ?3) " +
+        "and b.end < ?4 ")
+    List<BookingListView> findByBookerIdPastBeforeCursor(Long userId, LocalDateTime start, Long id,
+        LocalDateTime end, Pageable pageable);
+
+    @Query(BOOKING_LIST_VIEW +
+        "where b.booker.id = ?1 " +
+        "and b.start <= ?2 " +
+        "and (b.start < ?2 or b.id < ?3) " +
+        "and b.start > ?4 ")
+    List<BookingListView> findByBookerIdFutureBeforeCursor(Long userId, LocalDateTime start, Long id,
+        LocalDateTime now, Pageable pageable);
+
+    @Query(BOOKING_LIST_VIEW +
+        "where b.booker.id = ?1 " +
+        "and b.start <= ?2 " +
+        "and (b.start < ?2 or b.id < ?3) " +
+        "and b.status = ?4 ")
+    List<BookingListView> findByBookerIdAndStatusBeforeCursor(Long userId, LocalDateTime start, Long id,
+        Status status, Pageable pageable);
+
+    @Query(BOOKING_LIST_VIEW +
+        "where i.owner = ?1 " +
+        "and b.start <= ?2 " +
+        "and (b.start < ?2 or b.id < ?3) ")
+    List<BookingListView> findBookingsByItemOwnerBeforeCursor(Long userId, LocalDateTime start, Long id,
+        Pageable pageable);
+
+    @Query(BOOKING_LIST_VIEW +
+        "where i.owner = ?1 " +
+        "and b.start >= ?2 " +
+        "and (b.start > ?2 or b.id > ?3) " +
+        "and b.start < ?4 " +
+        "and b.end > ?4 ")
+    List<BookingListView> findBookingsByItemOwnerCurrentAfterCursor(Long userId, LocalDateTime start, Long id,
+        LocalDateTime now, Pageable pageable);
+
+    @Query(BOOKING_LIST_VIEW +
+        "where i.owner = ?1 " +
+        "and b.start <= ?2 " +
+        "and (b.start < ?2 or b.id < ?3) " +
+        "and b.end < ?4 ")
+    List<BookingListView> findBookingsByItemOwnerPastBeforeCursor(Long userId, LocalDateTime start, Long id,
+        LocalDateTime end, Pageable pageable);
+
+    @Query(BOOKING_LIST_VIEW +
+        "where i.owner = ?1 " +
+        "and b.start <= ?2 " +
+        "and (b.start < ?2 or b.id < ?3) " +
+        "and b.start > ?4 ")
+    List<BookingListView> findBookingsByItemOwnerFutureBeforeCursor(Long userId, LocalDateTime start, Long id,
+        LocalDateTime now, Pageable pageable);
+
+    @Query(BOOKING_LIST_VIEW +
+        "where i.owner = ?1 " +
+        "and b.start <= ?2 " +
+        "and (b.start < ?2 or b.id < ?3) " +
+        "and b.status = ?4 ")
+    List<BookingListView> findBookingsByItemOwnerAndStatusBeforeCursor(Long userId, LocalDateTime start, Long id,
+        Status status, Pageable pageable);
+
+    @Query(value = "select ranked.booking_id as id, ranked.start_date as startDate, ranked.end_date as endDate, " +
+        "ranked.item_id as itemId, ranked.booker_id as bookerId " +
+        "from (select b.*, row_number() over (partition by b.item_id " +
+        "order by b.start_date desc, b.booking_id desc) as row_num " +
+        "from bookings b " +
+        "where b.item_id in (?1) " +
+        "and b.start_date < ?2) ranked " +
+        "where ranked.row_num = 1", nativeQuery = true)
+    List<ShortBookingView> findLastBookingsByItemIds(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query(value = "select ranked.booking_id as id, ranked.start_date as startDate, ranked.end_date as endDate, " +
+        "ranked.item_id as itemId, ranked.booker_id as bookerId " +
+        "from (select b.*, row_number() over (partition by b.item_id " +
+        "order by b.start_date asc, b.booking_id asc) as row_num " +
+        "from bookings b " +
+        "where b.item_id in (?1) " +
+        "and b.start_date > ?2) ranked " +
+        "where ranked.row_num = 1", nativeQuery = true)
+    List<ShortBookingView> findNextBookingsByItemIds(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query("select u.id as bookerId, i.owner as itemOwner, b.version as version, i.version as itemVersion, " +
+        "u.version as bookerVersion, r.version as requestVersion, ru.version as requesterVersion " +
+        "from Booking b " +
+        "join b.item i " +
+        "join b.booker u " +
+        "left join i.request r " +
+        "left join r.requester ru " +
+        "where b.id = ?1")
+    Optional<BookingVersionView> findVersionById(Long id);
+
+    @EntityGraph(attributePaths = {"item", "item.request", "item.request.requester", "booker"})
+    Optional<Booking> findWithItemAndBookerById(Long id);
 
     @Query("select b from Booking b " +
         "where b.item.id = ?1 " +
         "and b.booker.id = ?2 " +
         "and b.end < ?3")
     List<Booking> findBookingsToAddComment(Long itemId, Long userId, LocalDateTime now);
+
+    @Query("select b.item.id from Booking b where b.id = ?1")
+    Optional<Long> findItemIdById(Long id);
+
+    @Query("select b.id as id, b.start as start, b.end as end " +
+        "from Booking b " +
+        "where b.item.id = ?1 " +
+        "and b.status = ?2 " +
+        "and b.end > ?3")
+    List<BookingPeriodView> findPeriodsByItemIdAndStatusEndingAfter(Long itemId, Status status, LocalDateTime after);
+
+    boolean existsByItemIdAndStatusAndStartBeforeAndEndAfter(Long itemId, Status status, LocalDateTime end,
+                                                             LocalDateTime start);
+
+    @Query("select b.id as id, b.start as start, b.end as end " +
+        "from Booking b " +
+        "where b.item.id = ?1 " +
+        "and b.status in ?2 " +
+        "and b.start < ?4 " +
+        "and b.end > ?3 " +
+        "order by b.start")
+    List<BookingPeriodView> findPeriodsByItemIdAndStatusInBetween(Long itemId, Collection<Status> statuses,
+                                                                  LocalDateTime from, LocalDateTime to);
+
+    @Query("select i.id as itemId, i.available as available, count(b.id) as busy " +
+        "from Item i left join Booking b on b.item = i " +
+        "and b.status in ?2 " +
+        "and b.start < ?4 " +
+        "and b.end > ?3 " +
+        "where i.id in ?1 " +
+        "group by i.id, i.available")
+    List<ItemBusyView> findBusyByItemIdsAndStatusInBetween(Collection<Long> itemIds, Collection<Status> statuses,
+                                                          LocalDateTime from, LocalDateTime to);
 }
\ No newline at end of file
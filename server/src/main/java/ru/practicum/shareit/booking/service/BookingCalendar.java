@@ -0,0 +1,156 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.*;
+import ru.practicum.shareit.booking.dto.BookingPeriodView;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.AvailabilityPeriodDto;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static ru.practicum.shareit.booking.model.Status.*;
+
+/**
+ * Free and busy periods of an item over a requested range, computed from its approved and waiting bookings and
+ * kept per item until a booking of that item changes. A range loaded while an eviction happens is not stored, so
+ * a slow read cannot put back what a write has just invalidated.
+ */
+@Component
+public class BookingCalendar {
+    static final List<Status> BUSY_STATUSES = List.of(APPROVED, WAITING);
+    private static final int MAX_RANGES_PER_ITEM = 16;
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, Map<Range, List<AvailabilityPeriodDto>>> items;
+    private long generation;
+
+    @Autowired
+    public BookingCalendar(BookingRepository bookingRepository,
+                           @Value("${shareit.availability.cache.max-items:10000}") int maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.items = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Map<Range, List<AvailabilityPeriodDto>>> eldest) {
+                return size() > maxItems;
+            }
+        };
+    }
+
+    public List<AvailabilityPeriodDto> getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        Range range = new Range(from, to);
+        long seenGeneration;
+
+        synchronized (this) {
+            Map<Range, List<AvailabilityPeriodDto>> ranges = items.get(itemId);
+            List<AvailabilityPeriodDto> periods = ranges == null ? null : ranges.get(range);
+            if (periods != null) {
+                return periods;
+            }
+            seenGeneration = generation;
+        }
+
+        List<AvailabilityPeriodDto> periods = toPeriods(
+            bookingRepository.findPeriodsByItemIdAndStatusInBetween(itemId, BUSY_STATUSES, from, to), from, to);
+
+        synchronized (this) {
+            if (generation == seenGeneration) {
+                items.computeIfAbsent(itemId, key -> newRanges()).put(range, periods);
+            }
+        }
+        return periods;
+    }
+
+    public void evict(long itemId) {
+        remove(itemId);
+        afterCompletion(() -> remove(itemId));
+    }
+
+    public void evictAll() {
+        clear();
+        afterCompletion(this::clear);
+    }
+
+    static List<AvailabilityPeriodDto> toPeriods(List<BookingPeriodView> bookings, LocalDateTime from,
+                                                 LocalDateTime to) {
+        List<AvailabilityPeriodDto> periods = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        LocalDateTime busyStart = null;
+        LocalDateTime busyEnd = null;
+
+        for (BookingPeriodView booking : bookings) {
+            LocalDateTime start = booking.getStart().isBefore(from) ? from : booking.getStart();
+            LocalDateTime end = booking.getEnd().isAfter(to) ? to : booking.getEnd();
+            if (!start.isBefore(end)) {
+                continue;
+            }
+
+            if (busyEnd != null && !start.isAfter(busyEnd)) {
+                if (end.isAfter(busyEnd)) {
+                    busyEnd = end;
+                }
+                continue;
+            }
+
+            if (busyEnd != null) {
+                periods.add(new AvailabilityPeriodDto(busyStart, busyEnd, false));
+                freeFrom = busyEnd;
+            }
+            if (start.isAfter(freeFrom)) {
+                periods.add(new AvailabilityPeriodDto(freeFrom, start, true));
+            }
+            busyStart = start;
+            busyEnd = end;
+        }
+
+        if (busyEnd != null) {
+            periods.add(new AvailabilityPeriodDto(busyStart, busyEnd, false));
+            freeFrom = busyEnd;
+        }
+        if (freeFrom.isBefore(to)) {
+            periods.add(new AvailabilityPeriodDto(freeFrom, to, true));
+        }
+        return List.copyOf(periods);
+    }
+
+    private synchronized void remove(long itemId) {
+        generation++;
+        items.remove(itemId);
+    }
+
+    private synchronized void clear() {
+        generation++;
+        items.clear();
+    }
+
+    private static Map<Range, List<AvailabilityPeriodDto>> newRanges() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Range, List<AvailabilityPeriodDto>> eldest) {
+                return size() > MAX_RANGES_PER_ITEM;
+            }
+        };
+    }
+
+    private static void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static final class Range {
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking.service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Booking periods of one item ordered by start. The periods are expected to be disjoint, as approved periods of an
+ * item are: only the period starting last before a probe ends can then overlap it, so a check is a single lookup,
+ * however long the periods are. Not thread-safe.
+ */
+public class BookingIntervals {
+    private final NavigableMap<LocalDateTime, Map<Long, LocalDateTime>> endsByStart = new TreeMap<>();
+    private final Map<Long, LocalDateTime> startsById = new HashMap<>();
+
+    public void add(long bookingId, LocalDateTime start, LocalDateTime end) {
+        remove(bookingId);
+        endsByStart.computeIfAbsent(start, key -> new HashMap<>()).put(bookingId, end);
+        startsById.put(bookingId, start);
+    }
+
+    public void remove(long bookingId) {
+        LocalDateTime start = startsById.remove(bookingId);
+        if (start == null) {
+            return;
+        }
+
+        Map<Long, LocalDateTime> ends = endsByStart.get(start);
+        ends.remove(bookingId);
+        if (ends.isEmpty()) {
+            endsByStart.remove(start);
+        }
+    }
+
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, Map<Long, LocalDateTime>> latest = endsByStart.lowerEntry(end);
+        if (latest == null) {
+            return false;
+        }
+
+        for (LocalDateTime otherEnd : latest.getValue().values()) {
+            if (otherEnd.isAfter(start)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return startsById.size();
+    }
+}
\ No newline at end of file
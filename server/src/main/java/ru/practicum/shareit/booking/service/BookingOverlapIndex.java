@@ -0,0 +1,157 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.*;
+import ru.practicum.shareit.booking.dto.BookingPeriodView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static ru.practicum.shareit.booking.model.Status.APPROVED;
+
+/**
+ * Approved booking periods per item, loaded on first use. Only periods that had not ended at load time are kept;
+ * a probe reaching further back asks the database. At most {@code max-items} items are held, least recently used
+ * first out. A reservation made inside a transaction is visible to other checks at once. If the transaction does
+ * not commit, the item's periods are dropped and read again on next use: the rollback may come from losing a race
+ * against an approval this index has not seen.
+ */
+@Component
+public class BookingOverlapIndex {
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemPeriods> items;
+
+    @Autowired
+    public BookingOverlapIndex(BookingRepository bookingRepository,
+                               @Value("${shareit.booking.overlap-cache.max-items:10000}") int maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.items = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ItemPeriods> eldest) {
+                return size() > maxItems;
+            }
+        };
+    }
+
+    public boolean overlaps(long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemPeriods periods = getPeriods(itemId);
+
+        synchronized (periods) {
+            if (periods.intervals.overlaps(start, end)) {
+                return true;
+            }
+        }
+        return overlapsBefore(periods, itemId, start, end);
+    }
+
+    public boolean reserve(long itemId, long bookingId, LocalDateTime start, LocalDateTime end) {
+        ItemPeriods periods = getPeriods(itemId);
+        if (overlapsBefore(periods, itemId, start, end)) {
+            return false;
+        }
+
+        synchronized (periods) {
+            if (periods.intervals.overlaps(start, end)) {
+                return false;
+            }
+            periods.intervals.add(bookingId, start, end);
+        }
+
+        afterCompletion(committed -> {
+            if (!committed) {
+                remove(periods, bookingId);
+                synchronized (items) {
+                    items.remove(itemId, periods);
+                }
+            }
+        });
+        return true;
+    }
+
+    public void release(long itemId, long bookingId) {
+        ItemPeriods periods;
+        synchronized (items) {
+            periods = items.get(itemId);
+        }
+
+        if (periods != null) {
+            afterCompletion(committed -> {
+                if (committed) {
+                    remove(periods, bookingId);
+                }
+            });
+        }
+    }
+
+    public void evictAll() {
+        clear();
+        afterCompletion(committed -> clear());
+    }
+
+    private ItemPeriods getPeriods(long itemId) {
+        synchronized (items) {
+            ItemPeriods periods = items.get(itemId);
+            if (periods != null) {
+                return periods;
+            }
+        }
+
+        LocalDateTime horizon = LocalDateTime.now();
+        ItemPeriods loaded = new ItemPeriods(horizon);
+        for (BookingPeriodView period
+            : bookingRepository.findPeriodsByItemIdAndStatusEndingAfter(itemId, APPROVED, horizon)) {
+            loaded.intervals.add(period.getId(), period.getStart(), period.getEnd());
+        }
+
+        synchronized (items) {
+            ItemPeriods periods = items.putIfAbsent(itemId, loaded);
+            return periods != null ? periods : loaded;
+        }
+    }
+
+    private boolean overlapsBefore(ItemPeriods periods, long itemId, LocalDateTime start, LocalDateTime end) {
+        return start.isBefore(periods.horizon)
+            && bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(itemId, APPROVED, end, start);
+    }
+
+    private void clear() {
+        synchronized (items) {
+            items.clear();
+        }
+    }
+
+    private static void remove(ItemPeriods periods, long bookingId) {
+        synchronized (periods) {
+            periods.intervals.remove(bookingId);
+        }
+    }
+
+    private static void afterCompletion(CompletionCallback callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            callback.completed(true);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.completed(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private interface CompletionCallback {
+        void completed(boolean committed);
+    }
+
+    private static final class ItemPeriods {
+        private final BookingIntervals intervals = new BookingIntervals();
+        private final LocalDateTime horizon;
+
+        private ItemPeriods(LocalDateTime horizon) {
+            this.horizon = horizon;
+        }
+    }
+}
@@ -5,10 +5,13 @@ import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.*;
+import ru.practicum.shareit.booking.lock.ItemLockManager;
 import ru.practicum.shareit.booking.model.*;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.core.ETags;
 import ru.practicum.shareit.core.exception.exceptions.*;
-import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.core.transaction.OptimisticRetry;
+import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.model.User;
@@ -28,12 +31,20 @@ public class BookingService implements BookingServiceInterface {
     private final ItemService itemService;
     private final UserService userService;
     private final StartAndEndValidator startAndEndValidator;
-    public static final Sort SORT = Sort.by("start").descending();
+    private final BookingOverlapIndex overlapIndex;
+    private final BookingCalendar calendar;
+    private final OptimisticRetry optimisticRetry;
+    private final ItemLockManager itemLockManager;
+    public static final Sort SORT = Sort.by("start").descending().and(Sort.by("id").descending());
+    public static final Sort CURRENT_OWNER_SORT = Sort.by("start").ascending().and(Sort.by("id").ascending());
 
-    @Transactional
     @Override
     public BookingDto save(Long userId, ShortBookingDto dto) {
-        Item item = itemService.getExistingItem(dto.getItemId());
+        return optimisticRetry.execute(itemLockManager.forItem(dto.getItemId()), () -> saveOnce(userId, dto));
+    }
+
+    private BookingDto saveOnce(Long userId, ShortBookingDto dto) {
+        Item item = itemService.getExistingItemForUpdate(dto.getItemId());
         User booker = userService.getExistingUser(userId);
 
         if (item.getOwner().equals(userId)) {
@@ -45,17 +56,31 @@ public class BookingService implements BookingServiceInterface {
         }
 
         startAndEndValidator.validate(dto);
+        itemLockManager.lockInTransaction(item.getId());
+        if (overlaps(item.getId(), dto.getStart(), dto.getEnd())) {
+            throw new BookingConflictException("Вещь уже забронирована на это время.");
+        }
+
         Booking booking = toBooking(dto, item, booker);
         booking.setStatus(WAITING);
+        calendar.evict(item.getId());
 
         return toBookingDto(bookingRepository.save(booking));
     }
 
-    @Transactional
     @Override
     public BookingDto approve(Long userId, Long bookingId, Boolean approved) {
+        long itemId = bookingRepository.findItemIdById(bookingId).orElseThrow(
+            () -> new BookingNotFoundException("Бронирование с id " + bookingId + " не найдено.")
+        );
+        return optimisticRetry.execute(itemLockManager.forItem(itemId),
+            () -> approveOnce(userId, itemId, bookingId, approved));
+    }
+
+    private BookingDto approveOnce(Long userId, long itemId, Long bookingId, Boolean approved) {
+        itemLockManager.lockInTransaction(itemId);
         Booking booking = getExistingBooking(bookingId);
-        Item item = itemService.getExistingItem(booking.getItem().getId());
+        Item item = itemService.getExistingItemForUpdate(booking.getItem().getId());
 
         if (!item.getOwner().equals(userId)) {
             throw new BookingNotFoundException("Запрос может быть выполнен только владельцем вещи.");
@@ -66,8 +91,16 @@ public class BookingService implements BookingServiceInterface {
             throw new BookingBadRequestException("Ваша заявка уже ожидает подтверждения.");
         }
 
+        if (status == APPROVED && !reserve(item.getId(), booking)) {
+            throw new BookingConflictException("Вещь уже забронирована на это время.");
+        }
+        if (booking.getStatus() == APPROVED) {
+            overlapIndex.release(item.getId(), booking.getId());
+        }
+
         booking.setStatus(status);
         booking = bookingRepository.save(booking);
+        calendar.evict(item.getId());
 
         return toBookingDto(booking);
     }
@@ -75,21 +108,34 @@ public class BookingService implements BookingServiceInterface {
     @Transactional(readOnly = true)
     @Override
     public BookingDto findById(Long id, Long userId) {
-        userService.getExistingUser(userId);
+        userService.checkUserExists(userId);
         Booking booking = getExistingBooking(id);
         validateRequester(booking, userId);
 
         return toBookingDto(booking);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public String getETag(Long id, Long userId) {
+        userService.checkUserExists(userId);
+        BookingVersionView version = bookingRepository.findVersionById(id).orElseThrow(
+            () -> new BookingNotFoundException("Бронирование с id " + id + " не найдено.")
+        );
+        validateRequester(version.getBookerId(), version.getItemOwner(), userId);
+
+        return ETags.of("booking", id, version.getVersion(), version.getItemVersion(), version.getBookerVersion(),
+            version.getRequestVersion(), version.getRequesterVersion());
+    }
+
     @Transactional(readOnly = true)
     @Override
     public Collection<BookingDto> findByUserIdAndState(Long userId, String state, int from, int size) {
-        userService.getExistingUser(userId);
+        userService.checkUserExists(userId);
 
         state = checkUserBookingState(state);
         Pageable pageable = PageRequest.of(from / size, size, SORT);
-        List<Booking> bookings;
+        List<BookingListView> bookings;
 
         switch (state) {
             case "ALL":
@@ -122,12 +168,12 @@ public class BookingService implements BookingServiceInterface {
     @Transactional(readOnly = true)
     @Override
     public Collection<BookingDto> findBookingsByItemOwnerId(Long userId, String state, int from, int size) {
-        userService.getExistingUser(userId);
+        userService.checkUserExists(userId);
         hasUserZeroItems(userId);
 
         state = checkUserBookingState(state);
         Pageable pageable = PageRequest.of(from / size, size, SORT);
-        List<Booking> bookings;
+        List<BookingListView> bookings;
 
         switch (state) {
             case "ALL":
@@ -135,7 +181,7 @@ public class BookingService implements BookingServiceInterface {
                 break;
             case "CURRENT":
                 bookings = bookingRepository.findBookingsByItemOwnerCurrent(userId, LocalDateTime.now(),
-                    PageRequest.of(from / size, size, Sort.by("start").ascending()));
+                    PageRequest.of(from / size, size, CURRENT_OWNER_SORT));
                 break;
             case "PAST":
                 bookings = bookingRepository.findBookingsByItemOwnerAndEndIsBefore(userId, LocalDateTime.now(), pageable);
@@ -158,6 +204,95 @@ public class BookingService implements BookingServiceInterface {
             .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public Collection<BookingDto> findByUserIdAndStateAfter(Long userId, String state, String after, int size) {
+        userService.checkUserExists(userId);
+
+        state = checkUserBookingState(state);
+        BookingCursor cursor = BookingCursor.decode(after);
+        Pageable pageable = PageRequest.of(0, size, SORT);
+        List<BookingListView> bookings;
+
+        switch (state) {
+            case "ALL":
+                bookings = bookingRepository.findByBookerIdBeforeCursor(userId, cursor.getStart(), cursor.getId(),
+                    pageable);
+                break;
+            case "CURRENT":
+                bookings = bookingRepository.findByBookerIdCurrentBeforeCursor(userId, cursor.getStart(),
+                    cursor.getId(), LocalDateTime.now(), pageable);
+                break;
+            case "PAST":
+                bookings = bookingRepository.findByBookerIdPastBeforeCursor(userId, cursor.getStart(), cursor.getId(),
+                    LocalDateTime.now(), pageable);
+                break;
+            case "FUTURE":
+                bookings = bookingRepository.findByBookerIdFutureBeforeCursor(userId, cursor.getStart(),
+                    cursor.getId(), LocalDateTime.now(), pageable);
+                break;
+            case "WAITING":
+                bookings = bookingRepository.findByBookerIdAndStatusBeforeCursor(userId, cursor.getStart(),
+                    cursor.getId(), WAITING, pageable);
+                break;
+            case "REJECTED":
+                bookings = bookingRepository.findByBookerIdAndStatusBeforeCursor(userId, cursor.getStart(),
+                    cursor.getId(), REJECTED, pageable);
+                break;
+            default:
+                throw new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS");
+        }
+
+        return bookings.stream()
+            .map(BookingMapper::toBookingDto)
+            .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Collection<BookingDto> findBookingsByItemOwnerIdAfter(Long userId, String state, String after, int size) {
+        userService.checkUserExists(userId);
+        hasUserZeroItems(userId);
+
+        state = checkUserBookingState(state);
+        BookingCursor cursor = BookingCursor.decode(after);
+        Pageable pageable = PageRequest.of(0, size, SORT);
+        List<BookingListView> bookings;
+
+        switch (state) {
+            case "ALL":
+                bookings = bookingRepository.findBookingsByItemOwnerBeforeCursor(userId, cursor.getStart(),
+                    cursor.getId(), pageable);
+                break;
+            case "CURRENT":
+                bookings = bookingRepository.findBookingsByItemOwnerCurrentAfterCursor(userId, cursor.getStart(),
+                    cursor.getId(), LocalDateTime.now(), PageRequest.of(0, size, CURRENT_OWNER_SORT));
+                break;
+            case "PAST":
+                bookings = bookingRepository.findBookingsByItemOwnerPastBeforeCursor(userId, cursor.getStart(),
+                    cursor.getId(), LocalDateTime.now(), pageable);
+                break;
+            case "FUTURE":
+                bookings = bookingRepository.findBookingsByItemOwnerFutureBeforeCursor(userId, cursor.getStart(),
+                    cursor.getId(), LocalDateTime.now(), pageable);
+                break;
+            case "WAITING":
+                bookings = bookingRepository.findBookingsByItemOwnerAndStatusBeforeCursor(userId, cursor.getStart(),
+                    cursor.getId(), WAITING, pageable);
+                break;
+            case "REJECTED":
+                bookings = bookingRepository.findBookingsByItemOwnerAndStatusBeforeCursor(userId, cursor.getStart(),
+                    cursor.getId(), REJECTED, pageable);
+                break;
+            default:
+                throw new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS");
+        }
+
+        return bookings.stream()
+            .map(BookingMapper::toBookingDto)
+            .collect(Collectors.toList());
+    }
+
     private String checkUserBookingState(String state) {
         if (state == null || state.isBlank()) {
             state = "ALL";
@@ -166,8 +301,23 @@ public class BookingService implements BookingServiceInterface {
         return state;
     }
 
+    // with a shared lock other instances approve too, so the local index is not consulted at all
+    private boolean overlaps(long itemId, LocalDateTime start, LocalDateTime end) {
+        if (itemLockManager.isShared()) {
+            return bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(itemId, APPROVED, end, start);
+        }
+        return overlapIndex.overlaps(itemId, start, end);
+    }
+
+    private boolean reserve(long itemId, Booking booking) {
+        if (itemLockManager.isShared()) {
+            return !overlaps(itemId, booking.getStart(), booking.getEnd());
+        }
+        return overlapIndex.reserve(itemId, booking.getId(), booking.getStart(), booking.getEnd());
+    }
+
     private Booking getExistingBooking(long id) {
-        return bookingRepository.findById(id).orElseThrow(
+        return bookingRepository.findWithItemAndBookerById(id).orElseThrow(
             () -> new BookingNotFoundException("Бронирование с id " + id + " не найдено.")
         );
     }
@@ -179,9 +329,10 @@ public class BookingService implements BookingServiceInterface {
     }
 
     private void validateRequester(Booking booking, long userId) {
-        long bookingAuthorId = booking.getBooker().getId();
-        long itemOwnerId = booking.getItem().getOwner();
+        validateRequester(booking.getBooker().getId(), booking.getItem().getOwner(), userId);
+    }
 
+    private void validateRequester(long bookingAuthorId, long itemOwnerId, long userId) {
         if (bookingAuthorId != userId && itemOwnerId != userId) {
             throw new BookingNotFoundException("Запрос может быть выполнен либо автором бронирования, " +
                 "либо владельцем вещи, к которой относится бронирование.");
@@ -204,20 +355,47 @@ public class BookingService implements BookingServiceInterface {
         }
     }
 
+    public List<AvailabilityFlagDto> getAvailability(Collection<Long> itemIds, LocalDateTime from, LocalDateTime to) {
+        // only approved bookings count, as in save(): the flag tells whether a booking for the range is accepted
+        Map<Long, Boolean> free = new HashMap<>();
+        for (ItemBusyView item : bookingRepository.findBusyByItemIdsAndStatusInBetween(itemIds, List.of(APPROVED),
+            from, to)) {
+            free.put(item.getItemId(), item.getAvailable() && item.getBusy() == 0);
+        }
+
+        return itemIds.stream()
+            .filter(free::containsKey)
+            .map(itemId -> new AvailabilityFlagDto(itemId, free.get(itemId)))
+            .collect(Collectors.toList());
+    }
+
     public void fillItemWithBookings(ItemDto result) {
+        fillItemsWithBookings(List.of(result));
+    }
+
+    public void fillItemsWithBookings(Collection<ItemDto> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+
         LocalDateTime now = LocalDateTime.now();
-        bookingRepository
-            .findBookingByItemIdAndStartBefore(result.getId(), now)
-            .stream()
-            .findFirst().ifPresent(lastBooking -> result.setLastBooking(toShortBookingDto(lastBooking)));
+        List<Long> itemIds = items.stream()
+            .map(ItemDto::getId)
+            .collect(Collectors.toList());
 
-        bookingRepository
-            .findBookingByItemIdAndStartAfter(result.getId(), now)
-            .stream()
-            .findFirst().ifPresent(nextBooking -> result.setNextBooking(toShortBookingDto(nextBooking)));
+        Map<Long, ShortBookingDto> lastBookings = mapByItemId(bookingRepository.findLastBookingsByItemIds(itemIds, now));
+        Map<Long, ShortBookingDto> nextBookings = mapByItemId(bookingRepository.findNextBookingsByItemIds(itemIds, now));
 
-        if (result.getLastBooking() == null) {
-            result.setNextBooking(null);
+        for (ItemDto item : items) {
+            ShortBookingDto lastBooking = lastBookings.get(item.getId());
+            item.setLastBooking(lastBooking);
+            item.setNextBooking(lastBooking != null ? nextBookings.get(item.getId()) : null);
         }
     }
-}
\ No newline at end of file
+
+    private Map<Long, ShortBookingDto> mapByItemId(List<ShortBookingView> bookings) {
+        return bookings.stream()
+            .map(BookingMapper::toShortBookingDto)
+            .collect(Collectors.toMap(ShortBookingDto::getItemId, booking -> booking));
+    }
+}
@@ -11,7 +11,13 @@ public interface BookingServiceInterface {
 
     BookingDto findById(Long id, Long userId);
 
+    String getETag(Long id, Long userId);
+
     Collection<BookingDto> findByUserIdAndState(Long userId, String state, int from, int size);
 
     Collection<BookingDto> findBookingsByItemOwnerId(Long userId, String state, int from, int size);
+
+    Collection<BookingDto> findByUserIdAndStateAfter(Long userId, String state, String after, int size);
+
+    Collection<BookingDto> findBookingsByItemOwnerIdAfter(Long userId, String state, String after, int size);
 }
\ No newline at end of file
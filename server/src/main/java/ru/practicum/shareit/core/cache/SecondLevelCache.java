@@ -0,0 +1,42 @@
+package ru.practicum.shareit.core.cache;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.*;
+
+import javax.persistence.EntityManagerFactory;
+
+@Component
+public class SecondLevelCache {
+    private final Cache cache;
+
+    @Autowired
+    public SecondLevelCache(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    /**
+     * For rows removed by database cascades, which Hibernate does not see. Evicted again after completion so that
+     * a concurrent reader cannot put the old state back before the commit.
+     */
+    public void evictAll(Class<?>... entities) {
+        evict(entities);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(entities);
+                }
+            });
+        }
+    }
+
+    private void evict(Class<?>... entities) {
+        for (Class<?> entity : entities) {
+            cache.evictEntityData(entity);
+        }
+    }
+}
\ No newline at end of file
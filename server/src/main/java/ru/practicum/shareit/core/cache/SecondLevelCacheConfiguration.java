@@ -0,0 +1,66 @@
+package ru.practicum.shareit.core.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.stat.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.*;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import javax.cache.*;
+import javax.persistence.EntityManagerFactory;
+import java.net.URI;
+import java.util.*;
+
+@Configuration
+public class SecondLevelCacheConfiguration {
+    static final List<Class<?>> CACHED_ENTITIES = List.of(User.class, Item.class, ItemRequest.class);
+
+    /**
+     * Hibernate closes its cache manager together with the session factory, so every persistence unit gets a
+     * manager of its own instead of the provider's shared default one.
+     */
+    @Bean
+    public CacheManager secondLevelCacheManager(@Value("${shareit.cache.second-level.max-entries}") long maxEntries) {
+        CacheManager manager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+            .getCacheManager(URI.create("shareit-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        for (Class<?> entity : CACHED_ENTITIES) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxEntries));
+            manager.createCache(entity.getName(), configuration);
+        }
+        return manager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheHitRatio(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        return registry -> CACHED_ENTITIES.forEach(entity ->
+            Gauge.builder("shareit.cache.second-level.hit.ratio", statistics, stats -> hitRatio(stats, entity))
+                .description("Share of second-level cache lookups answered without a select")
+                .tag("region", entity.getName())
+                .register(registry));
+    }
+
+    private static double hitRatio(Statistics statistics, Class<?> entity) {
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(entity.getName());
+        double hits = region.getHitCount();
+        double total = hits + region.getMissCount();
+
+        return total == 0 ? 0 : hits / total;
+    }
+}
\ No newline at end of file
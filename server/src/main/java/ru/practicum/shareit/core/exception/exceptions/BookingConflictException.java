@@ -0,0 +1,7 @@
+package ru.practicum.shareit.core.exception.exceptions;
+
+public class BookingConflictException extends ConflictException {
+    public BookingConflictException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.core.exception.exceptions;
+
+public class ConcurrentUpdateException extends ConflictException {
+    public ConcurrentUpdateException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
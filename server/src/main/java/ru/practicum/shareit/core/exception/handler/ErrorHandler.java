@@ -1,5 +1,6 @@
 package ru.practicum.shareit.core.exception.handler;
 
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
@@ -19,6 +20,19 @@ public class ErrorHandler {
         return new ErrorResponse(exception.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConflictException(final ConflictException exception) {
+        return new ErrorResponse(exception.getMessage());
+    }
+
+    // a stale version or lock conflict that was not retried, e.g. on a path without OptimisticRetry
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConcurrencyFailureException(final ConcurrencyFailureException exception) {
+        return new ErrorResponse("Данные были изменены параллельно, повторите запрос.");
+    }
+
     @ExceptionHandler({UnsupportedStatusException.class, Exception.class})
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleStatusException(final Exception exception) {
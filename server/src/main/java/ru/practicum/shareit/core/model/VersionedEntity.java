@@ -0,0 +1,16 @@
+package ru.practicum.shareit.core.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+
+import javax.persistence.*;
+
+@Getter
+@Setter
+@MappedSuperclass
+public abstract class VersionedEntity {
+    @JsonIgnore
+    @Version
+    @Column(nullable = false)
+    private long version;
+}
\ No newline at end of file
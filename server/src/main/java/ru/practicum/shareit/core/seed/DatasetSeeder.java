@@ -0,0 +1,206 @@
+package ru.practicum.shareit.core.seed;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+@Slf4j
+@Component
+@Profile("seed")
+@RequiredArgsConstructor
+public class DatasetSeeder implements ApplicationRunner {
+    private static final List<String> NOUNS = List.of("drill", "saw", "ladder", "tent", "bike", "camera", "kayak",
+        "projector", "hammer", "scooter", "guitar", "grill");
+    private static final List<String> ADJECTIVES = List.of("cordless", "compact", "heavy", "vintage", "electric",
+        "folding", "pro", "travel");
+    private static final Status[] STATUSES = {Status.APPROVED, Status.WAITING, Status.REJECTED, Status.CANCELED};
+    private static final int[] STATUS_WEIGHTS = {70, 15, 10, 5};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SeedProperties properties;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Random random = new Random(properties.getRandomSeed());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        long started = System.nanoTime();
+
+        long[] users = seedUsers();
+        long[] requests = seedRequests(random, users, now);
+        long[] itemOwners = new long[properties.getItems()];
+        long[] items = seedItems(random, users, requests, itemOwners);
+        seedBookings(random, users, items, itemOwners, now);
+        seedComments(random, users, items, now);
+
+        log.info("Seeded {} users, {} items, {} requests, {} bookings and {} comments in {} ms", users.length,
+            items.length, requests.length, properties.getBookings(), properties.getComments(),
+            (System.nanoTime() - started) / 1_000_000);
+
+        if (properties.isExitAfterSeeding()) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    private long[] seedUsers() {
+        long offset = maxId("users", "user_id");
+
+        insert("insert into users (name, email) values (?, ?)", properties.getUsers(), index -> new Object[]{
+            "user " + index,
+            "user" + index + "." + offset + "@seed.shareit"
+        });
+
+        return idsAfter("users", "user_id", offset);
+    }
+
+    private long[] seedRequests(Random random, long[] users, LocalDateTime now) {
+        long offset = maxId("requests", "request_id");
+
+        insert("insert into requests (description, requester_id, created) values (?, ?, ?)",
+            properties.getRequests(), index -> new Object[]{
+                "need a " + pick(random, NOUNS),
+                users[random.nextInt(users.length)],
+                Timestamp.valueOf(now.minusMinutes(random.nextInt(525_600)))
+            });
+
+        return idsAfter("requests", "request_id", offset);
+    }
+
+    private long[] seedItems(Random random, long[] users, long[] requests, long[] itemOwners) {
+        long offset = maxId("items", "item_id");
+        ZipfSampler owners = new ZipfSampler(users.length, properties.getPowerOwnerSkew());
+
+        insert("insert into items (name, description, is_available, owner_id, request_id) values (?, ?, ?, ?, ?)",
+            properties.getItems(), index -> {
+                String noun = pick(random, NOUNS);
+                itemOwners[index] = users[owners.next(random)];
+
+                return new Object[]{
+                    pick(random, ADJECTIVES) + " " + noun + " " + index,
+                    pick(random, ADJECTIVES) + " " + noun + " in good condition",
+                    random.nextInt(10) != 0,
+                    itemOwners[index],
+                    index < requests.length ? requests[index] : null
+                };
+            });
+
+        return idsAfter("items", "item_id", offset);
+    }
+
+    private void seedBookings(Random random, long[] users, long[] items, long[] itemOwners, LocalDateTime now) {
+        ZipfSampler hotItems = new ZipfSampler(items.length, properties.getHotItemSkew());
+        Map<Integer, NavigableMap<Integer, Integer>> approvedHours = new HashMap<>();
+
+        insert("insert into bookings (start_date, end_date, item_id, booker_id, status) values (?, ?, ?, ?, ?)",
+            properties.getBookings(), index -> {
+                int item = hotItems.next(random);
+                int startHour = random.nextInt(24 * 425) - 24 * 365;
+                int endHour = startHour + 1 + random.nextInt(24 * 14);
+                Status status = status(random);
+                if (status == Status.APPROVED) {
+                    status = reserve(approvedHours.computeIfAbsent(item, key -> new TreeMap<>()), startHour, endHour)
+                        ? Status.APPROVED
+                        : Status.REJECTED;
+                }
+
+                return new Object[]{
+                    Timestamp.valueOf(now.plusHours(startHour)),
+                    Timestamp.valueOf(now.plusHours(endHour)),
+                    items[item],
+                    otherThan(random, users, itemOwners[item]),
+                    status.name()
+                };
+            });
+    }
+
+    // approved periods of one item must not overlap, the period is rejected instead when it is taken
+    private boolean reserve(NavigableMap<Integer, Integer> approved, int startHour, int endHour) {
+        Map.Entry<Integer, Integer> before = approved.floorEntry(startHour);
+        Integer after = approved.ceilingKey(startHour);
+        if (before != null && before.getValue() > startHour || after != null && after < endHour) {
+            return false;
+        }
+
+        approved.put(startHour, endHour);
+        return true;
+    }
+
+    private void seedComments(Random random, long[] users, long[] items, LocalDateTime now) {
+        ZipfSampler hotItems = new ZipfSampler(items.length, properties.getHotItemSkew());
+
+        insert("insert into comments (text, item_id, author_id, created) values (?, ?, ?, ?)",
+            properties.getComments(), index -> new Object[]{
+                "comment " + index,
+                items[hotItems.next(random)],
+                users[random.nextInt(users.length)],
+                Timestamp.valueOf(now.minusMinutes(random.nextInt(525_600)))
+            });
+    }
+
+    private void insert(String sql, int count, RowGenerator generator) {
+        List<Object[]> batch = new ArrayList<>(properties.getBatchSize());
+
+        for (int index = 0; index < count; index++) {
+            batch.add(generator.row(index));
+
+            if (batch.size() == properties.getBatchSize() || index == count - 1) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private long maxId(String table, String column) {
+        Long max = jdbcTemplate.queryForObject("select max(" + column + ") from " + table, Long.class);
+
+        return max == null ? 0 : max;
+    }
+
+    private long[] idsAfter(String table, String column, long offset) {
+        return jdbcTemplate.queryForList("select " + column + " from " + table + " where " + column + " > ? " +
+                "order by " + column, Long.class, offset)
+            .stream()
+            .mapToLong(Long::longValue)
+            .toArray();
+    }
+
+    private long otherThan(Random random, long[] users, long excluded) {
+        int index = random.nextInt(users.length);
+        if (users[index] == excluded && users.length > 1) {
+            index = (index + 1) % users.length;
+        }
+
+        return users[index];
+    }
+
+    private Status status(Random random) {
+        int roll = random.nextInt(100);
+
+        for (int i = 0; i < STATUSES.length; i++) {
+            roll -= STATUS_WEIGHTS[i];
+            if (roll < 0) {
+                return STATUSES[i];
+            }
+        }
+
+        return Status.APPROVED;
+    }
+
+    private String pick(Random random, List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private interface RowGenerator {
+        Object[] row(int index);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.core.seed;
+
+import lombok.*;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.*;
+
+@Getter
+@Setter
+@Component
+@Profile("seed")
+@Validated
+@ConfigurationProperties(prefix = "shareit.seed")
+public class SeedProperties {
+    // every booking needs a booker other than the item owner
+    @Min(2)
+    private int users = 1_000;
+    @Min(1)
+    private int items = 2_000;
+    @Min(0)
+    private int requests = 500;
+    @Min(0)
+    private int bookings = 20_000;
+    @Min(0)
+    private int comments = 2_000;
+    @Min(1)
+    private int batchSize = 1_000;
+    private long randomSeed = 42;
+    @PositiveOrZero
+    private double hotItemSkew = 1.1;
+    @PositiveOrZero
+    private double powerOwnerSkew = 1.2;
+    private boolean exitAfterSeeding = false;
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.core.seed;
+
+import java.util.*;
+
+class ZipfSampler {
+    private final double[] cumulative;
+
+    ZipfSampler(int size, double skew) {
+        cumulative = new double[size];
+        double sum = 0;
+
+        for (int rank = 0; rank < size; rank++) {
+            sum += 1 / Math.pow(rank + 1, skew);
+            cumulative[rank] = sum;
+        }
+
+        for (int rank = 0; rank < size; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    int next(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+}
\ No newline at end of file
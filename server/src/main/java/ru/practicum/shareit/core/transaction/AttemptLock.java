@@ -0,0 +1,22 @@
+package ru.practicum.shareit.core.transaction;
+
+/**
+ * A lock held by one attempt of {@link OptimisticRetry}: taken before its transaction begins and released after
+ * the transaction has completed. Waiting for it holds no connection, and every completion callback of the holder
+ * has run by the time the next one gets it.
+ */
+public interface AttemptLock {
+    AttemptLock NONE = new AttemptLock() {
+        @Override
+        public void lock() {
+        }
+
+        @Override
+        public void unlock() {
+        }
+    };
+
+    void lock();
+
+    void unlock();
+}
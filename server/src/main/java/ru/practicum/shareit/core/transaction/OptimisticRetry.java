@@ -0,0 +1,108 @@
+package ru.practicum.shareit.core.transaction;
+
+import io.micrometer.core.instrument.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.*;
+import ru.practicum.shareit.core.exception.exceptions.ConcurrentUpdateException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs an action in a transaction of its own and runs it again when the transaction loses a race with a concurrent
+ * one (stale version, lock timeout). Every attempt reads afresh, so a retry sees what the winner committed. Inside
+ * an outer transaction the action runs once, since a failed attempt would leave that transaction rollback-only; an
+ * {@link AttemptLock} is then held until the outer transaction completes.
+ */
+@Component
+public class OptimisticRetry {
+    private static final String MESSAGE = "Данные были изменены параллельно, повторите запрос.";
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final Counter retries;
+    private final Counter exhausted;
+
+    @Autowired
+    public OptimisticRetry(PlatformTransactionManager transactionManager,
+                           @Value("${shareit.transaction.retry.max-attempts:5}") int maxAttempts,
+                           @Value("${shareit.transaction.retry.backoff-ms:5}") long backoffMillis,
+                           MeterRegistry registry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.retries = Counter.builder("shareit.transaction.retries")
+            .description("Transactions run again after losing a race with a concurrent update")
+            .tag("result", "retried")
+            .register(registry);
+        this.exhausted = Counter.builder("shareit.transaction.retries")
+            .description("Transactions run again after losing a race with a concurrent update")
+            .tag("result", "exhausted")
+            .register(registry);
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        return execute(AttemptLock.NONE, action);
+    }
+
+    public <T> T execute(AttemptLock lock, Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            lock.lock();
+            try {
+                return action.get();
+            } finally {
+                unlockAfterCompletion(lock);
+            }
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attempt(lock, action);
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw new ConcurrentUpdateException(MESSAGE);
+                }
+                retries.increment();
+                backOff(attempt);
+            }
+        }
+    }
+
+    private <T> T attempt(AttemptLock lock, Supplier<T> action) {
+        lock.lock();
+        try {
+            return transactionTemplate.execute(status -> action.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // registered after everything the action registered, so it runs after their callbacks
+    private static void unlockAfterCompletion(AttemptLock lock) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lock.unlock();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMillis * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException(MESSAGE);
+        }
+    }
+}
\ No newline at end of file
@@ -1,11 +1,14 @@
 package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.service.ItemServiceInterface;
 
-import java.util.Collection;
+import java.time.LocalDateTime;
+import java.util.*;
 
 @RestController
 @RequestMapping("/items")
@@ -25,6 +28,12 @@ public class ItemController {
         return itemServiceInterface.saveComment(userId, itemId, dto);
     }
 
+    @PostMapping("/availability")
+    public List<AvailabilityFlagDto> getAvailability(@RequestHeader("X-Sharer-User-Id") Long userId,
+        @RequestBody AvailabilityRequestDto dto) {
+        return itemServiceInterface.getAvailability(userId, dto);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto update(@RequestHeader("X-Sharer-User-Id") Long userId,
         @PathVariable Long itemId,
@@ -33,10 +42,23 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ItemDto findById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long itemId) {
+    public ItemDto findById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long itemId,
+        WebRequest request) {
+        if (request.checkNotModified(itemServiceInterface.getETag(userId, itemId))) {
+            return null;
+        }
+
         return itemServiceInterface.findById(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@RequestHeader("X-Sharer-User-Id") Long userId,
+        @PathVariable Long itemId,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemServiceInterface.getAvailability(userId, itemId, from, to);
+    }
+
     @GetMapping
     public Collection<ItemDto> findAll(@RequestHeader("X-Sharer-User-Id") Long userId,
         @RequestParam(defaultValue = "0", required = false) Integer from,
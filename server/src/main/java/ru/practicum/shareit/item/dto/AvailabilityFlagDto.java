@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.*;
+
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class AvailabilityFlagDto {
+    private Long itemId;
+    private boolean free;
+}
\ No newline at end of file
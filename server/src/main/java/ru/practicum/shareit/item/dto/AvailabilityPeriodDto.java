@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class AvailabilityPeriodDto {
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private boolean free;
+}
\ No newline at end of file
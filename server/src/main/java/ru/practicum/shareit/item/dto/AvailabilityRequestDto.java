@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class AvailabilityRequestDto {
+    private List<Long> itemIds;
+    private LocalDateTime from;
+    private LocalDateTime to;
+}
\ No newline at end of file
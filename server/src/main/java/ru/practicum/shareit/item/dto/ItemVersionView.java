@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+public interface ItemVersionView {
+    Long getOwner();
+
+    Long getVersion();
+
+    LocalDateTime getNextBookingStart();
+}
\ No newline at end of file
@@ -0,0 +1,166 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.*;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Same contract as {@link DatabaseItemSearchEngine}: available items whose name or description contains the whole
+ * text, case-insensitively, names starting with it first, then names containing it, then by id. Candidates come
+ * from a trigram index, as on PostgreSQL, and are checked against the text; shorter texts scan every item.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "in-memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int GRAM = 3;
+
+    private final ItemRepository itemRepository;
+    private final Map<Long, IndexedItem> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> trigramIndex = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        String query = text.toLowerCase(Locale.ROOT);
+
+        List<Long> pageIds = candidates(query).stream()
+            .map(documents::get)
+            .filter(document -> document != null && document.matches(query))
+            .sorted(Comparator.<IndexedItem>comparingInt(document -> document.rank(query))
+                .thenComparingLong(document -> document.id))
+            .skip(pageable.getOffset())
+            .limit(pageable.getPageSize())
+            .map(document -> document.id)
+            .collect(Collectors.toList());
+
+        Map<Long, Item> items = itemRepository.findAllById(pageIds).stream()
+            .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        return pageIds.stream()
+            .map(items::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public void index(Item item) {
+        IndexedItem document = toDocument(item);
+        afterCommit(() -> apply(document));
+    }
+
+    @Override
+    public void rebuild() {
+        afterCommit(this::reload);
+    }
+
+    private Collection<Long> candidates(String query) {
+        if (query.length() < GRAM) {
+            return documents.keySet();
+        }
+
+        Set<Long> candidates = null;
+        for (String gram : trigrams(query)) {
+            Set<Long> ids = trigramIndex.getOrDefault(gram, Set.of());
+            if (candidates == null) {
+                candidates = new HashSet<>(ids);
+            } else {
+                candidates.retainAll(ids);
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+        }
+        return candidates;
+    }
+
+    private synchronized void reload() {
+        documents.clear();
+        trigramIndex.clear();
+        itemRepository.findAll().forEach(item -> apply(toDocument(item)));
+    }
+
+    private synchronized void apply(IndexedItem document) {
+        IndexedItem previous = documents.put(document.id, document);
+        if (previous != null) {
+            for (String gram : previous.trigrams()) {
+                trigramIndex.computeIfPresent(gram, (key, ids) -> {
+                    ids.remove(previous.id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+
+        for (String gram : document.trigrams()) {
+            trigramIndex.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(document.id);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static IndexedItem toDocument(Item item) {
+        return new IndexedItem(item.getId(), lower(item.getName()), lower(item.getDescription()),
+            Boolean.TRUE.equals(item.getAvailable()));
+    }
+
+    private static String lower(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    @RequiredArgsConstructor
+    private static class IndexedItem {
+        private final long id;
+        private final String name;
+        private final String description;
+        private final boolean available;
+
+        boolean matches(String query) {
+            return available && (name.contains(query) || description.contains(query));
+        }
+
+        int rank(String query) {
+            return name.startsWith(query) ? 0 : name.contains(query) ? 1 : 2;
+        }
+
+        Set<String> trigrams() {
+            Set<String> grams = InMemoryItemSearchEngine.trigrams(name);
+            grams.addAll(InMemoryItemSearchEngine.trigrams(description));
+            return grams;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemSearchEngine {
+    List<Item> search(String text, Pageable pageable);
+
+    default void index(Item item) {
+    }
+
+    /**
+     * Called when items may have been removed in bulk, e.g. by the cascade from a deleted user.
+     */
+    default void rebuild() {
+    }
+}
@@ -5,16 +5,21 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.service.BookingCalendar;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.core.ETags;
 import ru.practicum.shareit.core.exception.exceptions.*;
+import ru.practicum.shareit.core.transaction.OptimisticRetry;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.*;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.storage.*;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.*;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -29,33 +34,50 @@ public class ItemService implements ItemServiceInterface {
     private final UserService userService;
     private final BookingService bookingService;
     private final ItemRequestService requestService;
+    private final ItemSearchEngine searchEngine;
+    private final OwnerItemCountCache ownerItemCountCache;
+    private final BookingCalendar bookingCalendar;
+    private final EntityManager entityManager;
+    private final OptimisticRetry optimisticRetry;
 
     @Autowired
     public ItemService(ItemRepository itemRepository, CommentRepository commentRepository, UserService userService,
-        @Lazy BookingService bookingService, @Lazy ItemRequestService requestService) {
+        @Lazy BookingService bookingService, @Lazy ItemRequestService requestService, ItemSearchEngine searchEngine,
+        OwnerItemCountCache ownerItemCountCache, BookingCalendar bookingCalendar, EntityManager entityManager,
+        OptimisticRetry optimisticRetry) {
         this.itemRepository = itemRepository;
         this.commentRepository = commentRepository;
         this.userService = userService;
         this.bookingService = bookingService;
         this.requestService = requestService;
+        this.searchEngine = searchEngine;
+        this.ownerItemCountCache = ownerItemCountCache;
+        this.bookingCalendar = bookingCalendar;
+        this.entityManager = entityManager;
+        this.optimisticRetry = optimisticRetry;
     }
 
     @Transactional
     @Override
     public ItemDto save(Long userId, ItemDto dto) {
-        userService.getExistingUser(userId);
+        userService.checkUserExists(userId);
 
         Item item = toItem(dto);
         item.setOwner(userId);
         setRequestWhenCreateItem(item, dto);
         item = itemRepository.save(item);
+        searchEngine.index(item);
+        ownerItemCountCache.evict(userId);
 
         return toItemDto(item);
     }
 
-    @Transactional
     @Override
     public ItemDto update(Long userId, Long itemId, ItemDto dto) {
+        return optimisticRetry.execute(() -> updateOnce(userId, itemId, dto));
+    }
+
+    private ItemDto updateOnce(Long userId, Long itemId, ItemDto dto) {
         Item item = getExistingItem(itemId);
         if (!item.getOwner().equals(userId)) {
             throw new UserNotFoundException("Id пользователя не совпадает.");
@@ -63,6 +85,7 @@ public class ItemService implements ItemServiceInterface {
 
         updateItemProperties(item, dto);
         item = itemRepository.save(item);
+        searchEngine.index(item);
 
         return fillItemWithCommentsAndBookings(item);
     }
@@ -70,7 +93,7 @@ public class ItemService implements ItemServiceInterface {
     @Transactional(readOnly = true)
     @Override
     public ItemDto findById(Long userId, Long itemId) {
-        userService.getExistingUser(userId);
+        userService.checkUserExists(userId);
         Item item = getExistingItem(itemId);
         ItemDto result = toItemDto(item);
         fillItemWithComments(result, itemId);
@@ -83,19 +106,29 @@ public class ItemService implements ItemServiceInterface {
         return result;
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public String getETag(Long userId, Long itemId) {
+        userService.checkUserExists(userId);
+        ItemVersionView version = itemRepository.findVersionById(itemId, LocalDateTime.now()).orElseThrow(
+            () -> new ItemNotFoundException("Товар с id " + itemId + " не найден.")
+        );
+
+        if (version.getOwner().equals(userId)) {
+            return ETags.of("item", itemId, version.getVersion(), version.getNextBookingStart());
+        }
+
+        return ETags.of("item", itemId, version.getVersion());
+    }
+
     @Transactional(readOnly = true)
     @Override
     public Collection<ItemDto> findAll(Long userId, int from, int size) {
         Pageable pageable = PageRequest.of(from / size, size);
-        List<ItemDto> result = new ArrayList<>();
         List<Item> items = itemRepository.findByOwner(userId, pageable);
         items = items.stream().sorted(Comparator.comparing(Item::getId)).collect(Collectors.toList());
 
-        for (Item item : items) {
-            result.add(fillItemWithCommentsAndBookings(item));
-        }
-
-        return result;
+        return fillItemsWithCommentsAndBookings(items);
     }
 
     @Transactional(readOnly = true)
@@ -106,14 +139,33 @@ public class ItemService implements ItemServiceInterface {
         }
 
         Pageable pageable = PageRequest.of(from / size, size);
-        List<ItemDto> result = new ArrayList<>();
-        List<Item> foundItems = itemRepository.search(text, pageable);
+        List<Item> foundItems = searchEngine.search(text, pageable);
+
+        return fillItemsWithCommentsAndBookings(foundItems);
+    }
 
-        for (Item foundItem : foundItems) {
-            result.add(fillItemWithCommentsAndBookings(foundItem));
+    @Transactional(readOnly = true)
+    @Override
+    public ItemAvailabilityDto getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        userService.checkUserExists(userId);
+        getExistingItem(itemId);
+        validateRange(from, to);
+
+        return new ItemAvailabilityDto(itemId, from, to, bookingCalendar.getAvailability(itemId, from, to));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<AvailabilityFlagDto> getAvailability(Long userId, AvailabilityRequestDto dto) {
+        userService.checkUserExists(userId);
+        validateRange(dto.getFrom(), dto.getTo());
+
+        Set<Long> itemIds = new LinkedHashSet<>(dto.getItemIds());
+        if (itemIds.isEmpty()) {
+            return new ArrayList<>();
         }
 
-        return result;
+        return bookingService.getAvailability(itemIds, dto.getFrom(), dto.getTo());
     }
 
     public Item getExistingItem(long id) {
@@ -122,6 +174,12 @@ public class ItemService implements ItemServiceInterface {
         );
     }
 
+    private void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ItemBadRequestException("Начало периода должно быть раньше его окончания.");
+        }
+    }
+
     private void setRequestWhenCreateItem(Item item, ItemDto dto) {
         if (dto.getRequestId() != null) {
             Long requestId = dto.getRequestId();
@@ -152,24 +210,45 @@ public class ItemService implements ItemServiceInterface {
         return result;
     }
 
-    public List<ItemDtoInRequest> getItemsByRequestId(long id) {
-        return itemRepository.findByRequestId(id)
-            .stream().map(ItemMapper::toItemDtoInRequest)
+    private List<ItemDto> fillItemsWithCommentsAndBookings(List<Item> items) {
+        List<ItemDto> result = items.stream()
+            .map(ItemMapper::toItemDto)
             .collect(Collectors.toList());
+        fillItemsWithComments(result);
+        bookingService.fillItemsWithBookings(result);
+
+        return result;
     }
 
-    public boolean hasUserZeroItems(long userId) {
-        return itemRepository.findAll()
+    public Item getExistingItemForUpdate(long id) {
+        Item item = getExistingItem(id);
+        entityManager.lock(item, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+
+        return item;
+    }
+
+    public Map<Long, List<ItemDtoInRequest>> getItemsByRequestIds(Collection<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        return itemRepository.findItemsInRequests(requestIds)
             .stream()
-            .filter(item -> item.getOwner().equals(userId))
-            .findAny().isEmpty();
+            .collect(Collectors.groupingBy(ItemDtoInRequest::getRequestId));
+    }
+
+    public boolean hasUserZeroItems(long userId) {
+        return !ownerItemCountCache.hasItems(userId);
     }
 
-    @Transactional
     @Override
     public CommentDto saveComment(Long userId, Long itemId, CommentDto dto) {
+        return optimisticRetry.execute(() -> saveCommentOnce(userId, itemId, dto));
+    }
+
+    private CommentDto saveCommentOnce(Long userId, Long itemId, CommentDto dto) {
         User user = userService.getExistingUser(userId);
-        Item item = getExistingItem(itemId);
+        Item item = getExistingItemForUpdate(itemId);
         bookingService.validateBookingsToAddComment(userId, itemId);
 
         Comment comment = toComment(dto);
@@ -190,4 +269,24 @@ public class ItemService implements ItemServiceInterface {
             result.setComments(new ArrayList<>());
         }
     }
+
+    private void fillItemsWithComments(List<ItemDto> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        List<Long> itemIds = items.stream()
+            .map(ItemDto::getId)
+            .collect(Collectors.toList());
+        Map<Long, List<CommentDto>> commentsByItemId = commentRepository.findAllByItemIdIn(itemIds)
+            .stream()
+            .collect(Collectors.groupingBy(
+                comment -> comment.getItem().getId(),
+                Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())
+            ));
+
+        for (ItemDto item : items) {
+            item.setComments(commentsByItemId.getOrDefault(item.getId(), new ArrayList<>()));
+        }
+    }
 }
\ No newline at end of file
@@ -2,7 +2,8 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.*;
 
-import java.util.Collection;
+import java.time.LocalDateTime;
+import java.util.*;
 
 public interface ItemServiceInterface {
     ItemDto save(Long userId, ItemDto dto);
@@ -11,9 +12,15 @@ public interface ItemServiceInterface {
 
     ItemDto findById(Long userId, Long itemId);
 
+    String getETag(Long userId, Long itemId);
+
     Collection<ItemDto> findAll(Long userId, int from, int size);
 
     Collection<ItemDto> search(Long userId, String text, int from, int size);
 
+    ItemAvailabilityDto getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to);
+
+    List<AvailabilityFlagDto> getAvailability(Long userId, AvailabilityRequestDto dto);
+
     CommentDto saveComment(Long userId, Long itemId, CommentDto dto);
 }
\ No newline at end of file
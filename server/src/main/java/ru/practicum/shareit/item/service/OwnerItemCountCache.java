@@ -0,0 +1,63 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.*;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.time.Duration;
+
+/**
+ * Item counts per owner. At most {@code max-owners} owners are held, least recently used first out, and a count
+ * is read again once it is {@code ttl-ms} old, which bounds how long items created or deleted by another instance
+ * go unnoticed.
+ */
+@Component
+public class OwnerItemCountCache {
+    private final ItemRepository itemRepository;
+    private final Cache<Long, Long> counts;
+
+    @Autowired
+    public OwnerItemCountCache(ItemRepository itemRepository,
+                               @Value("${shareit.item-counts.max-owners:10000}") long maxOwners,
+                               @Value("${shareit.item-counts.ttl-ms:60000}") long ttlMillis) {
+        this(itemRepository, maxOwners, ttlMillis, Ticker.systemTicker());
+    }
+
+    OwnerItemCountCache(ItemRepository itemRepository, long maxOwners, long ttlMillis, Ticker ticker) {
+        this.itemRepository = itemRepository;
+        this.counts = Caffeine.newBuilder()
+            .maximumSize(maxOwners)
+            .expireAfterWrite(Duration.ofMillis(ttlMillis))
+            .ticker(ticker)
+            .executor(Runnable::run)
+            .build();
+    }
+
+    public boolean hasItems(long ownerId) {
+        return getCount(ownerId) > 0;
+    }
+
+    public long getCount(long ownerId) {
+        return counts.get(ownerId, itemRepository::countByOwner);
+    }
+
+    public void evict(long ownerId) {
+        counts.invalidate(ownerId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    counts.invalidate(ownerId);
+                }
+            });
+        }
+    }
+
+    long size() {
+        counts.cleanUp();
+        return counts.estimatedSize();
+    }
+}
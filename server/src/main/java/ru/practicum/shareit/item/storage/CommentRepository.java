@@ -1,10 +1,14 @@
 package ru.practicum.shareit.item.storage;
 
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.*;
 import ru.practicum.shareit.item.model.Comment;
 
-import java.util.List;
+import java.util.*;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(attributePaths = "author")
     List<Comment> findAllByItemId(Long itemId);
+
+    @EntityGraph(attributePaths = "author")
+    List<Comment> findAllByItemIdIn(Collection<Long> itemIds);
 }
\ No newline at end of file
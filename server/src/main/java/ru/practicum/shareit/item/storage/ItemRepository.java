@@ -3,18 +3,43 @@ package ru.practicum.shareit.item.storage;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Item;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.*;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    @Query("select i from Item i " +
-        "where upper(i.name) like upper(concat('%', ?1, '%')) " +
-        " or upper(i.description) like upper(concat('%', ?1, '%')) and i.available = true")
+    @Query(value = "select * from items i " +
+        "where i.is_available = true " +
+        "and (lower(i.name) like concat('%', lower(?1), '%') " +
+        "or lower(i.description) like concat('%', lower(?1), '%')) " +
+        "order by case when lower(i.name) like concat(lower(?1), '%') then 0 " +
+        "when lower(i.name) like concat('%', lower(?1), '%') then 1 " +
+        "else 2 end, i.item_id", nativeQuery = true)
     List<Item> search(String text, Pageable pageable);
 
-    List<Item> findByRequestId(Long requestId);
+    @Query("select new ru.practicum.shareit.item.dto.ItemDtoInRequest(i.id, i.name, i.description, i.available, " +
+        "i.request.id) " +
+        "from Item i " +
+        "where i.request.id in ?1")
+    List<ItemDtoInRequest> findItemsInRequests(Collection<Long> requestIds);
 
     List<Item> findByOwner(Long userId, Pageable pageable);
-}
\ No newline at end of file
+
+    long countByOwner(Long userId);
+
+    // bookings and comments bump the item version themselves, so only the moment the next booking starts is left
+    @Query("select i.owner as owner, i.version as version, " +
+        "(select min(b.start) from Booking b where b.item = i and b.start > ?2) as nextBookingStart " +
+        "from Item i " +
+        "where i.id = ?1")
+    Optional<ItemVersionView> findVersionById(Long id, LocalDateTime now);
+
+    @Modifying
+    @Query("update Item i set i.version = i.version + 1 " +
+        "where i.id in (select b.item.id from Booking b where b.booker.id = ?1) " +
+        "or i.id in (select c.item.id from Comment c where c.author.id = ?1)")
+    int incrementVersionsTouchedBy(Long userId);
+}
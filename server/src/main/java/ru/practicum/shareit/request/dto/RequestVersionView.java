@@ -0,0 +1,11 @@
+package ru.practicum.shareit.request.dto;
+
+public interface RequestVersionView {
+    Long getVersion();
+
+    Long getItems();
+
+    Long getLastItemId();
+
+    Long getItemVersions();
+}
\ No newline at end of file
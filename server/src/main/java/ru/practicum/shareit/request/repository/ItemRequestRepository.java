@@ -1,15 +1,24 @@
 package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.*;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.dto.RequestVersionView;
 import ru.practicum.shareit.request.model.ItemRequest;
 
-import java.util.List;
+import java.util.*;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
     List<ItemRequest> findByRequesterId(Long userId, Sort sort);
 
     List<ItemRequest> findByRequesterIdIsNot(Long userId, Pageable pageable);
+
+    @Query("select r.version as version, count(i) as items, coalesce(max(i.id), 0) as lastItemId, " +
+        "coalesce(sum(i.version), 0) as itemVersions " +
+        "from ItemRequest r " +
+        "left join Item i on i.request = r " +
+        "where r.id = ?1 " +
+        "group by r.id, r.version")
+    Optional<RequestVersionView> findVersionById(Long id);
 }
\ No newline at end of file
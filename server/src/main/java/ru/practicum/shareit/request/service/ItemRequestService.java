@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.core.ETags;
 import ru.practicum.shareit.core.exception.exceptions.RequestNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDtoInRequest;
 import ru.practicum.shareit.item.service.ItemService;
@@ -43,18 +44,30 @@ public class ItemRequestService implements ItemRequestServiceInterface {
     @Transactional(readOnly = true)
     @Override
     public ItemRequestDto findById(Long userId, Long requestId) {
-        userService.getExistingUser(userId);
+        userService.checkUserExists(userId);
         ItemRequest request = getExistingRequest(requestId);
         ItemRequestDto result = toRequestDto(request);
-        fillRequestsWithItems(result);
+        fillRequestsWithItems(List.of(result));
 
         return result;
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public String getETag(Long userId, Long requestId) {
+        userService.checkUserExists(userId);
+        RequestVersionView version = requestRepository.findVersionById(requestId).orElseThrow(
+            () -> new RequestNotFoundException("Запрос с id " + requestId + " не найден.")
+        );
+
+        return ETags.of("request", requestId, version.getVersion(), version.getItems(), version.getLastItemId(),
+            version.getItemVersions());
+    }
+
     @Transactional(readOnly = true)
     @Override
     public Collection<ItemRequestDto> findAll(Long userId) {
-        userService.getExistingUser(userId);
+        userService.checkUserExists(userId);
         List<ItemRequest> requests = requestRepository.findByRequesterId(userId, SORT);
 
         return mapListToDtoList(requests);
@@ -63,7 +76,7 @@ public class ItemRequestService implements ItemRequestServiceInterface {
     @Transactional(readOnly = true)
     @Override
     public Collection<ItemRequestDto> findAllFromOtherUsers(Long userId, Integer from, Integer size) {
-        userService.getExistingUser(userId);
+        userService.checkUserExists(userId);
         Pageable pageable = PageRequest.of(from / size, size, SORT);
         List<ItemRequest> requests = requestRepository.findByRequesterIdIsNot(userId, pageable);
 
@@ -74,10 +87,7 @@ public class ItemRequestService implements ItemRequestServiceInterface {
         List<ItemRequestDto> result = requests.stream()
             .map(RequestMapper::toRequestDto)
             .collect(Collectors.toList());
-
-        for (ItemRequestDto request : result) {
-            fillRequestsWithItems(request);
-        }
+        fillRequestsWithItems(result);
 
         return result;
     }
@@ -88,13 +98,14 @@ public class ItemRequestService implements ItemRequestServiceInterface {
         );
     }
 
-    private void fillRequestsWithItems(ItemRequestDto request) {
-        List<ItemDtoInRequest> items = itemService.getItemsByRequestId(request.getId());
+    private void fillRequestsWithItems(List<ItemRequestDto> requests) {
+        List<Long> requestIds = requests.stream()
+            .map(ItemRequestDto::getId)
+            .collect(Collectors.toList());
+        Map<Long, List<ItemDtoInRequest>> itemsByRequestId = itemService.getItemsByRequestIds(requestIds);
 
-        if (!items.isEmpty()) {
-            request.setItems(items);
-        } else {
-            request.setItems(new ArrayList<>());
+        for (ItemRequestDto request : requests) {
+            request.setItems(itemsByRequestId.getOrDefault(request.getId(), new ArrayList<>()));
         }
     }
 }
\ No newline at end of file
@@ -9,6 +9,8 @@ public interface ItemRequestServiceInterface {
 
     ItemRequestDto findById(Long userId, Long requestId);
 
+    String getETag(Long userId, Long requestId);
+
     Collection<ItemRequestDto> findAll(Long userId);
 
     Collection<ItemRequestDto> findAllFromOtherUsers(Long userId, Integer from, Integer size);
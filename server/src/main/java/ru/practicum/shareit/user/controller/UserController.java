@@ -2,6 +2,7 @@ package ru.practicum.shareit.user.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserServiceInterface;
 
@@ -19,7 +20,11 @@ public class UserController {
     }
 
     @GetMapping("/{id}")
-    public UserDto findById(@PathVariable Long id) {
+    public UserDto findById(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(userServiceInterface.getETag(id))) {
+            return null;
+        }
+
         return userServiceInterface.findById(id);
     }
 
@@ -1,9 +1,17 @@
 package ru.practicum.shareit.user.repository;
 
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    @Query("select u.version from User u where u.id = ?1")
+    Optional<Long> findVersionById(Long id);
+
+    @Query("select u.id from User u")
+    List<Long> findAllIds();
 }
\ No newline at end of file
@@ -0,0 +1,198 @@
+package ru.practicum.shareit.user.service;
+
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.*;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.*;
+import java.util.function.LongSupplier;
+
+/**
+ * Ids of existing users as a bitmap indexed by id, which fits the dense identity ids of the users table. Reads take
+ * no lock; writes are rare and serialized. Users inserted past the service (seeding, another instance) are not
+ * known up front, so a miss is confirmed against the database and remembered. Ids above {@code max-id} are never
+ * held and always go to the database, which bounds the bitmap at {@code max-id / 8} bytes. Deletions are only seen
+ * by the instance that made them, so the whole bitmap is reloaded once it is {@code ttl-ms} old: a user deleted
+ * elsewhere passes the check for at most that long.
+ */
+@Component
+public class UserIdSet {
+    private static final int WORD_SHIFT = 6;
+    private static final int INITIAL_WORDS = 1024;
+    private static final long MAX_ID = ((long) Integer.MAX_VALUE << WORD_SHIFT) - 1;
+
+    private final UserRepository userRepository;
+    private final long maxId;
+    private final long ttlNanos;
+    private final LongSupplier nanoTime;
+    private final AtomicLong removals = new AtomicLong();
+    private final AtomicBoolean reloading = new AtomicBoolean();
+    private volatile AtomicLongArray words;
+    private volatile long loadedAt;
+
+    @Autowired
+    public UserIdSet(UserRepository userRepository,
+                     @Value("${shareit.user-ids.max-id:16777215}") long maxId,
+                     @Value("${shareit.user-ids.ttl-ms:60000}") long ttlMillis) {
+        this(userRepository, maxId, ttlMillis, System::nanoTime);
+    }
+
+    UserIdSet(UserRepository userRepository, long maxId, long ttlMillis, LongSupplier nanoTime) {
+        this.userRepository = userRepository;
+        this.maxId = Math.min(maxId, MAX_ID);
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.nanoTime = nanoTime;
+        this.words = new AtomicLongArray(initialWords());
+        this.loadedAt = nanoTime.getAsLong();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    public boolean exists(long id) {
+        reloadIfExpired();
+        if (contains(id)) {
+            return true;
+        }
+        if (id > maxId) {
+            return userRepository.existsById(id);
+        }
+
+        long seenRemovals = removals.get();
+        if (!userRepository.existsById(id)) {
+            return false;
+        }
+
+        synchronized (this) {
+            if (removals.get() == seenRemovals) {
+                set(id);
+            }
+        }
+        return true;
+    }
+
+    public void add(long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            set(id);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                set(id);
+            }
+        });
+    }
+
+    public void remove(long id) {
+        clear(id);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        clear(id);
+                    } else {
+                        set(id);
+                    }
+                }
+            });
+        }
+    }
+
+    boolean contains(long id) {
+        AtomicLongArray current = words;
+        long word = id >>> WORD_SHIFT;
+
+        return id >= 0 && word < current.length() && (current.get((int) word) & (1L << id)) != 0;
+    }
+
+    int capacity() {
+        return words.length();
+    }
+
+    // one caller reloads, the others keep answering from the previous bitmap meanwhile
+    private void reloadIfExpired() {
+        if (nanoTime.getAsLong() - loadedAt < ttlNanos || !reloading.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            reload();
+        } finally {
+            reloading.set(false);
+        }
+    }
+
+    // a removal during the select may be missing from its result, so the old bitmap is kept and reloaded next time
+    private void reload() {
+        long seenRemovals = removals.get();
+        AtomicLongArray loaded = new AtomicLongArray(initialWords());
+        for (Long id : userRepository.findAllIds()) {
+            loaded = set(loaded, id);
+        }
+
+        synchronized (this) {
+            if (removals.get() == seenRemovals) {
+                words = loaded;
+                loadedAt = nanoTime.getAsLong();
+            }
+        }
+    }
+
+    private synchronized void set(long id) {
+        words = set(words, id);
+    }
+
+    private AtomicLongArray set(AtomicLongArray target, long id) {
+        if (id < 0 || id > maxId) {
+            return target;
+        }
+
+        int word = (int) (id >>> WORD_SHIFT);
+        if (word >= target.length()) {
+            target = grow(target, word);
+        }
+        target.set(word, target.get(word) | 1L << id);
+        return target;
+    }
+
+    private synchronized void clear(long id) {
+        removals.incrementAndGet();
+        long word = id >>> WORD_SHIFT;
+
+        if (id >= 0 && word < words.length()) {
+            words.set((int) word, words.get((int) word) & ~(1L << id));
+        }
+    }
+
+    private AtomicLongArray grow(AtomicLongArray target, int word) {
+        int maxWords = maxWords();
+        int length = target.length();
+        while (length <= word) {
+            length = length > maxWords / 2 ? maxWords : length * 2;
+        }
+
+        AtomicLongArray grown = new AtomicLongArray(length);
+        for (int i = 0; i < target.length(); i++) {
+            grown.set(i, target.get(i));
+        }
+        return grown;
+    }
+
+    private int initialWords() {
+        return Math.min(INITIAL_WORDS, maxWords());
+    }
+
+    private int maxWords() {
+        return (int) (maxId >>> WORD_SHIFT) + 1;
+    }
+}
@@ -3,7 +3,17 @@ package ru.practicum.shareit.user.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.service.BookingCalendar;
+import ru.practicum.shareit.booking.service.BookingOverlapIndex;
+import ru.practicum.shareit.core.ETags;
+import ru.practicum.shareit.core.cache.SecondLevelCache;
 import ru.practicum.shareit.core.exception.exceptions.*;
+import ru.practicum.shareit.core.transaction.OptimisticRetry;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.service.OwnerItemCountCache;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.*;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -17,6 +27,14 @@ import static ru.practicum.shareit.user.dto.UserMapper.*;
 @RequiredArgsConstructor
 public class UserService implements UserServiceInterface {
     private final UserRepository userRepository;
+    private final OwnerItemCountCache ownerItemCountCache;
+    private final SecondLevelCache secondLevelCache;
+    private final UserIdSet userIdSet;
+    private final BookingOverlapIndex bookingOverlapIndex;
+    private final BookingCalendar bookingCalendar;
+    private final OptimisticRetry optimisticRetry;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemRepository itemRepository;
 
     @Transactional(readOnly = true)
     @Override
@@ -33,17 +51,38 @@ public class UserService implements UserServiceInterface {
         return toUserDto(getExistingUser(id));
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public String getETag(Long id) {
+        long version = userRepository.findVersionById(id).orElseThrow(
+            () -> new UserNotFoundException("Пользователь с id " + id + " не найден.")
+        );
+
+        return ETags.of("user", id, version);
+    }
+
     @Transactional
     @Override
     public UserDto save(UserDto dto) {
-        return toUserDto(userRepository.save(toUser(dto)));
+        User saved = userRepository.save(toUser(dto));
+        userIdSet.add(saved.getId());
+
+        return toUserDto(saved);
     }
 
-    @Transactional
     @Override
     public UserDto update(UserDto dto, Long userId) {
+        return optimisticRetry.execute(() -> updateOnce(dto, userId));
+    }
+
+    private UserDto updateOnce(UserDto dto, Long userId) {
         User updated = getExistingUser(userId);
+        String oldName = updated.getName();
         updateName(updated, dto.getName());
+        if (!updated.getName().equals(oldName)) {
+            // comments on other users' items show the author name
+            itemRepository.incrementVersionsTouchedBy(userId);
+        }
         updateEmail(updated, dto.getEmail());
         userRepository.save(updated);
 
@@ -54,7 +93,20 @@ public class UserService implements UserServiceInterface {
     @Override
     public void delete(Long id) {
         getExistingUser(id);
+        itemRepository.incrementVersionsTouchedBy(id);
         userRepository.deleteById(id);
+        ownerItemCountCache.evict(id);
+        userIdSet.remove(id);
+        secondLevelCache.evictAll(Item.class, ItemRequest.class);
+        bookingOverlapIndex.evictAll();
+        bookingCalendar.evictAll();
+        itemSearchEngine.rebuild();
+    }
+
+    public void checkUserExists(long id) {
+        if (!userIdSet.exists(id)) {
+            throw new UserNotFoundException("Пользователь с id " + id + " не найден.");
+        }
     }
 
     public User getExistingUser(long id) {
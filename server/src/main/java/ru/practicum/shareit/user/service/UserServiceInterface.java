@@ -9,6 +9,8 @@ public interface UserServiceInterface {
 
     UserDto findById(Long id);
 
+    String getETag(Long id);
+
     UserDto save(UserDto dto);
 
     UserDto update(UserDto dto, Long userId);
@@ -1,9 +1,3 @@
-DROP TABLE IF EXISTS users CASCADE;
-DROP TABLE IF EXISTS items CASCADE;
-DROP TABLE IF EXISTS comments CASCADE;
-DROP TABLE IF EXISTS bookings CASCADE;
-DROP TABLE IF EXISTS requests CASCADE;
-
 CREATE TABLE IF NOT EXISTS users (
 	user_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
 	name VARCHAR(255) NOT NULL,
@@ -0,0 +1,12 @@
+DROP INDEX IF EXISTS idx_bookings_booker_start;
+
+DROP INDEX IF EXISTS idx_bookings_booker_status_start;
+
+DROP INDEX IF EXISTS idx_bookings_item_start;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start_id ON bookings (booker_id, start_date DESC, booking_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start_id
+    ON bookings (booker_id, status, start_date DESC, booking_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start_id ON bookings (item_id, start_date DESC, booking_id DESC);
@@ -1,13 +1,24 @@
 package ru.practicum.shareit;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.search.*;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 
 @SpringBootTest
 class ShareItTests {
+	@Autowired
+	private ItemSearchEngine searchEngine;
 
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void searchEngine_whenTestProfile_thenInMemoryEngineUsed() {
+		assertInstanceOf(InMemoryItemSearchEngine.class, searchEngine);
+	}
+
 }
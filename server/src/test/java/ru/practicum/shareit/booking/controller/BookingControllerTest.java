@@ -90,6 +90,21 @@ public class BookingControllerTest {
         verify(bookingServiceInterface, times(1)).save(anyLong(), any(ShortBookingDto.class));
     }
 
+    @Test
+    void saveBooking_whenPeriodTaken_thenStatus409() throws Exception {
+        when(bookingServiceInterface.save(anyLong(), any(ShortBookingDto.class)))
+            .thenThrow(new BookingConflictException("Вещь уже забронирована на это время."));
+
+        mockMvc.perform(
+                post("/bookings")
+                    .header("X-Sharer-User-Id", 1)
+                    .content(objectMapper.writeValueAsString(shortBookingDto))
+                    .contentType(MediaType.APPLICATION_JSON)
+            )
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.error", is("Вещь уже забронирована на это время.")));
+    }
+
     @Test
     void saveBooking_whenNullStart_thenExceptionReturned() throws Exception {
         ShortBookingDto bookinfWithNullStart = ShortBookingDto.builder()
@@ -186,6 +201,19 @@ public class BookingControllerTest {
             .andExpect(status().isNotFound());
     }
 
+    @Test
+    public void findBooking_whenETagMatches_thenStatus304() throws Exception {
+        when(bookingServiceInterface.getETag(anyLong(), anyLong())).thenReturn("\"booking-1-0-0-0-null-null\"");
+
+        mockMvc.perform(get("/bookings/{bookingId}", 1)
+                .header("X-Sharer-User-Id", 1)
+                .header("If-None-Match", "\"booking-1-0-0-0-null-null\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", "\"booking-1-0-0-0-null-null\""));
+
+        verify(bookingServiceInterface, never()).findById(anyLong(), anyLong());
+    }
+
     @Test
     public void findByUserIdAndState_whenInvoked_thenStatus200andReturnBookingList() throws Exception {
         List<BookingDto> expectedBookings = List.of(bookingDto);
@@ -216,6 +244,40 @@ public class BookingControllerTest {
         verify(bookingServiceInterface, times(1)).findBookingsByItemOwnerId(anyLong(), anyString(), anyInt(), anyInt());
     }
 
+    @Test
+    public void findByUserIdAndState_whenAfterPassed_thenCursorPageAndNextCursorReturned() throws Exception {
+        String after = BookingCursor.encode(bookingDto);
+        when(bookingServiceInterface.findByUserIdAndStateAfter(anyLong(), anyString(), anyString(), anyInt()))
+            .thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(
+                get("/bookings")
+                    .header("X-Sharer-User-Id", 1)
+                    .param("state", "ALL")
+                    .param("size", "1")
+                    .param("after", after))
+            .andExpect(status().isOk())
+            .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER, after))
+            .andExpect(content().json(objectMapper.writeValueAsString(List.of(bookingDto))));
+
+        verify(bookingServiceInterface, times(1)).findByUserIdAndStateAfter(1L, "ALL", after, 1);
+        verify(bookingServiceInterface, never()).findByUserIdAndState(anyLong(), anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void findBookingsByItemOwnerId_whenLastPage_thenNoNextCursor() throws Exception {
+        when(bookingServiceInterface.findBookingsByItemOwnerIdAfter(anyLong(), anyString(), anyString(), anyInt()))
+            .thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(
+                get("/bookings/owner")
+                    .header("X-Sharer-User-Id", 1)
+                    .param("state", "ALL")
+                    .param("after", BookingCursor.encode(bookingDto)))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(BookingController.NEXT_CURSOR_HEADER));
+    }
+
     @Test
     public void updateBooking_thenStatus200andUpdatedReturns() throws Exception {
         when(bookingServiceInterface.approve(anyLong(), anyLong(), anyBoolean())).thenReturn(bookingDto);
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.booking.lock;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.*;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.core.transaction.AttemptLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AdvisoryItemLockManagerTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @InjectMocks
+    private AdvisoryItemLockManager lockManager;
+
+    @Test
+    void lockInTransaction_whenInTransaction_thenTransactionAdvisoryLockTaken() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            lockManager.lockInTransaction(7L);
+            lockManager.lockInTransaction(7L + (1L << 32));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        verify(jdbcTemplate, times(1)).query(eq("select pg_advisory_xact_lock(?, ?)"), any(RowCallbackHandler.class),
+            eq(AdvisoryItemLockManager.ITEM_LOCK_SPACE), eq(7));
+        verify(jdbcTemplate, times(1)).query(eq("select pg_advisory_xact_lock(?, ?)"), any(RowCallbackHandler.class),
+            eq(AdvisoryItemLockManager.ITEM_LOCK_SPACE), eq(6));
+        assertTrue(lockManager.isShared());
+        assertSame(AttemptLock.NONE, lockManager.forItem(7L));
+    }
+
+    @Test
+    void lockInTransaction_whenNoTransaction_thenExceptionReturned() {
+        assertThrows(IllegalStateException.class, () -> lockManager.lockInTransaction(7L));
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.booking.lock;
+
+import org.junit.jupiter.api.*;
+import ru.practicum.shareit.core.exception.exceptions.ConcurrentUpdateException;
+import ru.practicum.shareit.core.transaction.AttemptLock;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StripedItemLockManagerTest {
+    private StripedItemLockManager lockManager;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void beforeEach() {
+        lockManager = new StripedItemLockManager(16, 50);
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void afterEach() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void forItem_whenHeldByOtherThread_thenWaitsUntilUnlocked() throws Exception {
+        AttemptLock lock = lockManager.forItem(1L);
+        lock.lock();
+        long otherStripeItemId = 2L;
+        while (lockManager.stripe(otherStripeItemId) == lockManager.stripe(1L)) {
+            otherStripeItemId++;
+        }
+
+        ExecutionException timedOut = assertThrows(ExecutionException.class, () -> inOtherThread(1L).get());
+        assertInstanceOf(ConcurrentUpdateException.class, timedOut.getCause());
+        inOtherThread(otherStripeItemId).get();
+
+        lock.unlock();
+        inOtherThread(1L).get();
+    }
+
+    @Test
+    void stripe_whenConsecutiveIds_thenSpreadOverStripes() {
+        Set<Integer> stripes = new HashSet<>();
+        for (long itemId = 1; itemId <= 64; itemId++) {
+            stripes.add(lockManager.stripe(itemId));
+        }
+
+        assertEquals(16, stripes.size());
+    }
+
+    private Future<?> inOtherThread(long itemId) {
+        return executor.submit(() -> {
+            AttemptLock lock = lockManager.forItem(itemId);
+            lock.lock();
+            lock.unlock();
+        });
+    }
+}
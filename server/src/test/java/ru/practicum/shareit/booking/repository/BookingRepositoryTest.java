@@ -1,18 +1,21 @@
 package ru.practicum.shareit.booking.repository;
 
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.*;
 import org.springframework.data.domain.*;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.*;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
+import java.util.stream.Collectors;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 import static ru.practicum.shareit.booking.model.Status.*;
 import static ru.practicum.shareit.booking.service.BookingService.SORT;
 
@@ -78,46 +81,60 @@ public class BookingRepositoryTest {
         this.entityManager.persist(booker);
         this.entityManager.persist(item);
         this.entityManager.persist(bookingWithStatusIsCurrent);
-        List<Booking> actual = bookingRepository.findByBookerIdCurrent(booker.getId(), LocalDateTime.now(), pageable);
+        List<BookingListView> actual = bookingRepository.findByBookerIdCurrent(booker.getId(), LocalDateTime.now(), pageable);
 
         assertEquals(1, actual.size());
-        assertEquals(bookingWithStatusIsCurrent.getStart(), actual.get(0).getStart());
-        assertEquals(bookingWithStatusIsCurrent.getEnd(), actual.get(0).getEnd());
-        assertEquals(bookingWithStatusIsCurrent.getBooker(), actual.get(0).getBooker());
-        assertEquals(bookingWithStatusIsCurrent.getItem(), actual.get(0).getItem());
+        assertEquals(bookingWithStatusIsCurrent.getStart(), actual.get(0).getStartDate());
+        assertEquals(bookingWithStatusIsCurrent.getEnd(), actual.get(0).getEndDate());
+        assertEquals(bookingWithStatusIsCurrent.getBooker().getId(), actual.get(0).getBookerId());
+        assertEquals(bookingWithStatusIsCurrent.getItem().getId(), actual.get(0).getItemId());
         assertEquals(bookingWithStatusIsCurrent.getStatus(), actual.get(0).getStatus());
     }
 
     @Test
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
-    void findBookingByItemIdAndStartBefore() {
+    void findLastBookingsByItemIds() {
         this.entityManager.persist(booker);
         this.entityManager.persist(item);
         this.entityManager.persist(bookingWithEndBeforeAndItemId);
-        List<Booking> actual = bookingRepository.findBookingByItemIdAndStartBefore(item.getId(), LocalDateTime.now());
+        this.entityManager.persist(bookingWithStatusIsCurrent);
+        List<ShortBookingView> actual = bookingRepository.findLastBookingsByItemIds(List.of(item.getId()), LocalDateTime.now());
 
         assertEquals(1, actual.size());
-        assertEquals(bookingWithEndBeforeAndItemId.getStart(), actual.get(0).getStart());
-        assertEquals(bookingWithEndBeforeAndItemId.getEnd(), actual.get(0).getEnd());
-        assertEquals(bookingWithEndBeforeAndItemId.getBooker(), actual.get(0).getBooker());
-        assertEquals(bookingWithEndBeforeAndItemId.getItem(), actual.get(0).getItem());
-        assertEquals(bookingWithEndBeforeAndItemId.getStatus(), actual.get(0).getStatus());
+        assertEquals(bookingWithStatusIsCurrent.getId(), actual.get(0).getId());
+        assertEquals(bookingWithStatusIsCurrent.getStart(), actual.get(0).getStartDate());
+        assertEquals(bookingWithStatusIsCurrent.getEnd(), actual.get(0).getEndDate());
+        assertEquals(item.getId(), actual.get(0).getItemId());
+        assertEquals(booker.getId(), actual.get(0).getBookerId());
     }
 
     @Test
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
-    void findBookingByItemIdAndStartAfter() {
+    void findNextBookingsByItemIds() {
+        Booking nearestFutureBooking = Booking.builder()
+            .start(LocalDateTime.now().plusDays(1))
+            .end(LocalDateTime.now().plusDays(2))
+            .item(item)
+            .booker(booker)
+            .status(WAITING)
+            .build();
+        Booking farFutureBooking = Booking.builder()
+            .start(LocalDateTime.now().plusDays(10))
+            .end(LocalDateTime.now().plusDays(11))
+            .item(item)
+            .booker(booker)
+            .status(WAITING)
+            .build();
         this.entityManager.persist(booker);
         this.entityManager.persist(item);
-        this.entityManager.persist(bookingWithStartAfterAndItemId);
-        List<Booking> actual = bookingRepository.findBookingByItemIdAndStartAfter(item.getId(), LocalDateTime.now());
+        this.entityManager.persist(farFutureBooking);
+        this.entityManager.persist(nearestFutureBooking);
+        this.entityManager.persist(bookingWithEndBeforeAndItemId);
+        List<ShortBookingView> actual = bookingRepository.findNextBookingsByItemIds(List.of(item.getId()), LocalDateTime.now());
 
         assertEquals(1, actual.size());
-        assertEquals(bookingWithStartAfterAndItemId.getStart(), actual.get(0).getStart());
-        assertEquals(bookingWithStartAfterAndItemId.getEnd(), actual.get(0).getEnd());
-        assertEquals(bookingWithStartAfterAndItemId.getBooker(), actual.get(0).getBooker());
-        assertEquals(bookingWithStartAfterAndItemId.getItem(), actual.get(0).getItem());
-        assertEquals(bookingWithStartAfterAndItemId.getStatus(), actual.get(0).getStatus());
+        assertEquals(nearestFutureBooking.getId(), actual.get(0).getId());
+        assertEquals(item.getId(), actual.get(0).getItemId());
     }
 
     @Test
@@ -126,16 +143,65 @@ public class BookingRepositoryTest {
         this.entityManager.persist(booker);
         this.entityManager.persist(item);
         this.entityManager.persist(bookingWithStatusIsCurrent);
-        List<Booking> actual = bookingRepository.findBookingsByItemOwnerCurrent(1L, LocalDateTime.now(), pageable);
+        List<BookingListView> actual = bookingRepository.findBookingsByItemOwnerCurrent(1L, LocalDateTime.now(), pageable);
 
         assertEquals(1, actual.size());
-        assertEquals(bookingWithStatusIsCurrent.getStart(), actual.get(0).getStart());
-        assertEquals(bookingWithStatusIsCurrent.getEnd(), actual.get(0).getEnd());
-        assertEquals(bookingWithStatusIsCurrent.getBooker(), actual.get(0).getBooker());
-        assertEquals(bookingWithStatusIsCurrent.getItem(), actual.get(0).getItem());
+        assertEquals(bookingWithStatusIsCurrent.getStart(), actual.get(0).getStartDate());
+        assertEquals(bookingWithStatusIsCurrent.getEnd(), actual.get(0).getEndDate());
+        assertEquals(bookingWithStatusIsCurrent.getBooker().getId(), actual.get(0).getBookerId());
+        assertEquals(bookingWithStatusIsCurrent.getItem().getId(), actual.get(0).getItemId());
         assertEquals(bookingWithStatusIsCurrent.getStatus(), actual.get(0).getStatus());
     }
 
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void findByBookerIdBeforeCursor() {
+        Booking sameStartBooking = Booking.builder()
+            .start(bookingWithStatusIsCurrent.getStart())
+            .end(bookingWithStatusIsCurrent.getEnd())
+            .item(item)
+            .booker(booker)
+            .status(WAITING)
+            .build();
+        this.entityManager.persist(booker);
+        this.entityManager.persist(item);
+        this.entityManager.persist(bookingWithStartAfterAndItemId);
+        this.entityManager.persist(bookingWithStatusIsCurrent);
+        this.entityManager.persist(sameStartBooking);
+        this.entityManager.persist(bookingWithEndBeforeAndItemId);
+
+        List<BookingListView> firstPage = bookingRepository.findByBookerId(booker.getId(), PageRequest.of(0, 2, SORT));
+        BookingListView last = firstPage.get(1);
+        List<BookingListView> secondPage = bookingRepository.findByBookerIdBeforeCursor(booker.getId(),
+            last.getStartDate(), last.getId(), PageRequest.of(0, 2, SORT));
+
+        assertEquals(List.of(bookingWithStartAfterAndItemId.getId(), sameStartBooking.getId()), ids(firstPage));
+        assertEquals(List.of(bookingWithStatusIsCurrent.getId(), bookingWithEndBeforeAndItemId.getId()),
+            ids(secondPage));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void findByBookerId_whenListed_thenItemAndBookerColumnsProjected() {
+        this.entityManager.persist(booker);
+        this.entityManager.persist(item);
+        this.entityManager.persist(bookingWithStartAfterAndItemId);
+        this.entityManager.flush();
+        this.entityManager.clear();
+
+        List<BookingListView> actual = bookingRepository.findByBookerId(booker.getId(), pageable);
+
+        assertEquals(1, actual.size());
+        assertEquals(bookingWithStartAfterAndItemId.getId(), actual.get(0).getId());
+        assertEquals(item.getName(), actual.get(0).getItemName());
+        assertEquals(item.getDescription(), actual.get(0).getItemDescription());
+        assertEquals(item.getAvailable(), actual.get(0).getItemAvailable());
+        assertEquals(item.getOwner(), actual.get(0).getItemOwner());
+        assertEquals(booker.getName(), actual.get(0).getBookerName());
+        assertEquals(booker.getEmail(), actual.get(0).getBookerEmail());
+        assertEquals(WAITING, actual.get(0).getStatus());
+    }
+
     @Test
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
     void findBookingsToAddComment() {
@@ -151,4 +217,110 @@ public class BookingRepositoryTest {
         assertEquals(bookingWithEndBeforeAndItemId.getItem(), actual.get(0).getItem());
         assertEquals(bookingWithEndBeforeAndItemId.getStatus(), actual.get(0).getStatus());
     }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void findPeriodsByItemIdAndStatusInBetween_whenRangeGiven_thenOverlappingBusyPeriodsReturnedByStart() {
+        this.entityManager.persist(booker);
+        this.entityManager.persist(item);
+        this.entityManager.persist(bookingWithStartAfterAndItemId);
+        this.entityManager.persist(bookingWithStatusIsCurrent);
+        this.entityManager.persist(bookingWithEndBeforeAndItemId);
+        bookingWithEndBeforeAndItemId.setStatus(REJECTED);
+
+        List<BookingPeriodView> actual = bookingRepository.findPeriodsByItemIdAndStatusInBetween(item.getId(),
+            List.of(APPROVED, WAITING), LocalDateTime.of(2022, 1, 1, 0, 0), LocalDateTime.of(2025, 11, 11, 11, 11));
+
+        assertEquals(1, actual.size());
+        assertEquals(bookingWithStatusIsCurrent.getId(), actual.get(0).getId());
+        assertEquals(bookingWithStatusIsCurrent.getStart(), actual.get(0).getStart());
+        assertEquals(bookingWithStatusIsCurrent.getEnd(), actual.get(0).getEnd());
+
+        actual = bookingRepository.findPeriodsByItemIdAndStatusInBetween(item.getId(),
+            List.of(APPROVED, WAITING), LocalDateTime.of(2020, 1, 1, 0, 0), LocalDateTime.of(2030, 1, 1, 0, 0));
+
+        assertEquals(List.of(bookingWithStatusIsCurrent.getId(), bookingWithStartAfterAndItemId.getId()),
+            actual.stream().map(BookingPeriodView::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void findPeriodsByItemIdAndStatusEndingAfter_whenPeriodEnded_thenSkipped() {
+        bookingWithStartAfterAndItemId.setStatus(APPROVED);
+        this.entityManager.persist(booker);
+        this.entityManager.persist(item);
+        this.entityManager.persist(bookingWithStartAfterAndItemId);
+        this.entityManager.persist(bookingWithEndBeforeAndItemId);
+
+        List<BookingPeriodView> actual = bookingRepository.findPeriodsByItemIdAndStatusEndingAfter(item.getId(),
+            APPROVED, LocalDateTime.of(2023, 1, 1, 0, 0));
+
+        assertEquals(List.of(bookingWithStartAfterAndItemId.getId()),
+            actual.stream().map(BookingPeriodView::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void existsByItemIdAndStatusAndStartBeforeAndEndAfter_whenPeriodsTouch_thenNoOverlap() {
+        this.entityManager.persist(booker);
+        this.entityManager.persist(item);
+        this.entityManager.persist(bookingWithEndBeforeAndItemId);
+        LocalDateTime end = bookingWithEndBeforeAndItemId.getEnd();
+
+        assertTrue(bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(item.getId(), APPROVED,
+            end.plusDays(1), end.minusDays(1)));
+        assertFalse(bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(item.getId(), APPROVED,
+            end.plusDays(1), end));
+        assertFalse(bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(item.getId(), WAITING,
+            end.plusDays(1), end.minusDays(1)));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void findBusyByItemIdsAndStatusInBetween_whenItemsGiven_thenOverlappingBookingsCountedPerItem() {
+        Item freeItem = Item.builder()
+            .name("saw")
+            .description("sharp saw")
+            .available(true)
+            .owner(1L)
+            .build();
+        this.entityManager.persist(booker);
+        this.entityManager.persist(item);
+        this.entityManager.persist(freeItem);
+        this.entityManager.persist(bookingWithStatusIsCurrent);
+        this.entityManager.persist(bookingWithStartAfterAndItemId);
+        this.entityManager.persist(bookingWithEndBeforeAndItemId);
+
+        List<ItemBusyView> actual = bookingRepository.findBusyByItemIdsAndStatusInBetween(
+            List.of(item.getId(), freeItem.getId(), 999L), List.of(APPROVED, WAITING),
+            LocalDateTime.of(2023, 1, 1, 0, 0), LocalDateTime.of(2025, 12, 1, 0, 0));
+
+        assertEquals(2, actual.size());
+        Map<Long, Long> busy = actual.stream().collect(Collectors.toMap(ItemBusyView::getItemId, ItemBusyView::getBusy));
+        assertEquals(2L, busy.get(item.getId()));
+        assertEquals(0L, busy.get(freeItem.getId()));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void findById_whenToStringAndHashCodeCalled_thenLazyAssociationsNotLoaded() {
+        this.entityManager.persist(booker);
+        this.entityManager.persist(item);
+        this.entityManager.persist(bookingWithEndBeforeAndItemId);
+        this.entityManager.flush();
+        this.entityManager.clear();
+
+        Booking actual = bookingRepository.findById(bookingWithEndBeforeAndItemId.getId()).orElseThrow();
+        actual.toString();
+        actual.hashCode();
+
+        assertFalse(Hibernate.isInitialized(actual.getItem()));
+        assertFalse(Hibernate.isInitialized(actual.getBooker()));
+    }
+
+    private List<Long> ids(List<BookingListView> bookings) {
+        return bookings.stream()
+            .map(BookingListView::getId)
+            .collect(Collectors.toList());
+    }
 }
\ No newline at end of file
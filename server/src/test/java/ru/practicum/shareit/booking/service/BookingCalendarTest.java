@@ -0,0 +1,119 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.practicum.shareit.booking.dto.BookingPeriodView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.AvailabilityPeriodDto;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static ru.practicum.shareit.booking.model.Status.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingCalendarTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 10, 0, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Test
+    void toPeriods_whenBookingsOverlapAndTouch_thenBusyPeriodsMerged() {
+        List<AvailabilityPeriodDto> periods = BookingCalendar.toPeriods(List.of(
+            period(1L, DAY.minusDays(2), DAY.plusDays(1)),
+            period(2L, DAY.plusDays(1), DAY.plusDays(2)),
+            period(3L, DAY.plusHours(30), DAY.plusHours(40)),
+            period(4L, DAY.plusDays(4), DAY.plusDays(5)),
+            period(5L, DAY.plusDays(9), DAY.plusDays(20))
+        ), DAY, DAY.plusDays(10));
+
+        assertEquals(List.of(
+            new AvailabilityPeriodDto(DAY, DAY.plusDays(2), false),
+            new AvailabilityPeriodDto(DAY.plusDays(2), DAY.plusDays(4), true),
+            new AvailabilityPeriodDto(DAY.plusDays(4), DAY.plusDays(5), false),
+            new AvailabilityPeriodDto(DAY.plusDays(5), DAY.plusDays(9), true),
+            new AvailabilityPeriodDto(DAY.plusDays(9), DAY.plusDays(10), false)
+        ), periods);
+    }
+
+    @Test
+    void toPeriods_whenNoBookings_thenWholeRangeFree() {
+        assertEquals(List.of(new AvailabilityPeriodDto(DAY, DAY.plusDays(1), true)),
+            BookingCalendar.toPeriods(List.of(), DAY, DAY.plusDays(1)));
+    }
+
+    @Test
+    void getAvailability_whenCalledTwice_thenRangeQueriedOnce() {
+        BookingCalendar calendar = new BookingCalendar(bookingRepository, 10);
+        when(bookingRepository.findPeriodsByItemIdAndStatusInBetween(1L, List.of(APPROVED, WAITING), DAY,
+            DAY.plusDays(3))).thenReturn(List.of(period(1L, DAY.plusDays(1), DAY.plusDays(2))));
+
+        List<AvailabilityPeriodDto> first = calendar.getAvailability(1L, DAY, DAY.plusDays(3));
+        List<AvailabilityPeriodDto> second = calendar.getAvailability(1L, DAY, DAY.plusDays(3));
+
+        assertEquals(3, first.size());
+        assertSame(first, second);
+        verify(bookingRepository, times(1)).findPeriodsByItemIdAndStatusInBetween(anyLong(), anyCollection(), any(),
+            any());
+    }
+
+    @Test
+    void evict_whenBookingOfItemChanged_thenRangeQueriedAgain() {
+        BookingCalendar calendar = new BookingCalendar(bookingRepository, 10);
+        when(bookingRepository.findPeriodsByItemIdAndStatusInBetween(anyLong(), anyCollection(), any(), any()))
+            .thenReturn(List.of());
+
+        calendar.getAvailability(1L, DAY, DAY.plusDays(3));
+        calendar.getAvailability(2L, DAY, DAY.plusDays(3));
+        calendar.evict(1L);
+        calendar.getAvailability(1L, DAY, DAY.plusDays(3));
+        calendar.getAvailability(2L, DAY, DAY.plusDays(3));
+
+        verify(bookingRepository, times(2)).findPeriodsByItemIdAndStatusInBetween(eq(1L), anyCollection(), any(),
+            any());
+        verify(bookingRepository, times(1)).findPeriodsByItemIdAndStatusInBetween(eq(2L), anyCollection(), any(),
+            any());
+    }
+
+    @Test
+    void getAvailability_whenEvictedDuringLoad_thenLoadedRangeNotKept() {
+        BookingCalendar calendar = new BookingCalendar(bookingRepository, 10);
+        when(bookingRepository.findPeriodsByItemIdAndStatusInBetween(anyLong(), anyCollection(), any(), any()))
+            .thenAnswer(invocation -> {
+                calendar.evict(1L);
+                return List.of();
+            });
+
+        calendar.getAvailability(1L, DAY, DAY.plusDays(3));
+        calendar.getAvailability(1L, DAY, DAY.plusDays(3));
+
+        verify(bookingRepository, times(2)).findPeriodsByItemIdAndStatusInBetween(anyLong(), anyCollection(), any(),
+            any());
+    }
+
+    @Test
+    void getAvailability_whenMoreItemsThanLimit_thenLeastRecentlyUsedDropped() {
+        BookingCalendar calendar = new BookingCalendar(bookingRepository, 1);
+        when(bookingRepository.findPeriodsByItemIdAndStatusInBetween(anyLong(), anyCollection(), any(), any()))
+            .thenReturn(List.of());
+
+        calendar.getAvailability(1L, DAY, DAY.plusDays(3));
+        calendar.getAvailability(2L, DAY, DAY.plusDays(3));
+        calendar.getAvailability(1L, DAY, DAY.plusDays(3));
+
+        verify(bookingRepository, times(2)).findPeriodsByItemIdAndStatusInBetween(eq(1L), anyCollection(), any(),
+            any());
+    }
+
+    private static BookingPeriodView period(long id, LocalDateTime start, LocalDateTime end) {
+        return new SpelAwareProxyProjectionFactory().createProjection(BookingPeriodView.class,
+            Map.of("id", id, "start", start, "end", end));
+    }
+}
\ No newline at end of file
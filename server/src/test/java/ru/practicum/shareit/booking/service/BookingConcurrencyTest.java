@@ -0,0 +1,203 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.*;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.core.exception.exceptions.*;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.booking.model.Status.APPROVED;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class BookingConcurrencyTest {
+    private static final int THREADS = 32;
+    private static final int ITEMS = 8;
+    private static final int BOOKERS = 8;
+    private static final int SLOTS = 10;
+    private static final int BOOKINGS = 1000;
+    private static final int OPERATIONS = 3000;
+    private static final LocalDateTime FIRST_DAY = LocalDateTime.now().plusDays(1).withNano(0);
+
+    private BookingService bookingService;
+    private ItemService itemService;
+    private UserService userService;
+    private UserRepository userRepository;
+    private ItemRepository itemRepository;
+    private BookingRepository bookingRepository;
+    private User owner;
+    private List<User> bookers;
+    private List<Item> items;
+    private final Map<Long, AtomicInteger> transitionsByBooking = new ConcurrentHashMap<>();
+    private final Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+
+    @Autowired
+    public BookingConcurrencyTest(BookingService bookingService, ItemService itemService, UserService userService,
+        UserRepository userRepository, ItemRepository itemRepository, BookingRepository bookingRepository) {
+        this.bookingService = bookingService;
+        this.itemService = itemService;
+        this.userService = userService;
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        owner = userRepository.save(new User(null, "owner", "owner@mail.ru"));
+        bookers = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            bookers.add(userRepository.save(new User(null, "booker " + i, "booker" + i + "@mail.ru")));
+        }
+        items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(itemRepository.save(new Item(null, "drill " + i, "cordless drill", true, owner.getId(), null)));
+        }
+    }
+
+    @AfterEach
+    void afterEach() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void approveAndSave_whenRacing_thenApprovedPeriodsDisjointAndNoTransitionLost() throws Exception {
+        Random random = new Random(42);
+        List<Long> bookingIds = Collections.synchronizedList(new ArrayList<>());
+
+        run(random.ints(BOOKINGS).mapToObj(seed -> (Runnable) () -> bookingIds.add(save(new Random(seed)))));
+
+        List<Long> created = List.copyOf(bookingIds);
+        run(random.ints(OPERATIONS).mapToObj(seed -> (Runnable) () -> {
+            Random operation = new Random(seed);
+            if (operation.nextInt(4) == 0) {
+                save(operation);
+            } else {
+                approve(created.get(operation.nextInt(created.size())), operation.nextInt(10) < 7);
+            }
+        }));
+
+        assertTrue(unexpected.isEmpty(), () -> "unexpected failures: " + unexpected);
+        List<Booking> bookings = bookingRepository.findAll();
+        Map<Long, List<Booking>> approvedByItem = bookings.stream()
+            .filter(booking -> booking.getStatus() == APPROVED)
+            .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        assertFalse(approvedByItem.isEmpty());
+
+        for (List<Booking> approved : approvedByItem.values()) {
+            approved.sort(Comparator.comparing(Booking::getStart));
+            for (int i = 1; i < approved.size(); i++) {
+                assertFalse(approved.get(i).getStart().isBefore(approved.get(i - 1).getEnd()),
+                    "overlapping approved bookings " + approved.get(i - 1).getId() + " and " + approved.get(i).getId());
+            }
+        }
+
+        Map<Long, Integer> transitionsByItem = new HashMap<>();
+        for (Booking booking : bookings) {
+            int transitions = transitionsByBooking.getOrDefault(booking.getId(), new AtomicInteger()).get();
+            assertEquals(transitions, booking.getVersion(), "lost status change of booking " + booking.getId());
+            // creating the booking bumps the item version once, every status change once more
+            transitionsByItem.merge(booking.getItem().getId(), transitions + 1, Integer::sum);
+        }
+        for (Item item : itemRepository.findAll()) {
+            assertEquals((long) transitionsByItem.getOrDefault(item.getId(), 0), item.getVersion(),
+                "lost version increment of item " + item.getId());
+        }
+    }
+
+    @Test
+    void updateItemAndUser_whenRacingApprovals_thenConflictsRetried() throws Exception {
+        Random random = new Random(7);
+        List<Long> bookingIds = Collections.synchronizedList(new ArrayList<>());
+        run(random.ints(BOOKINGS / 10).mapToObj(seed -> (Runnable) () -> bookingIds.add(save(new Random(seed)))));
+        List<Long> created = List.copyOf(bookingIds);
+        AtomicInteger updates = new AtomicInteger();
+
+        run(random.ints(OPERATIONS / 10).mapToObj(seed -> (Runnable) () -> {
+            Random operation = new Random(seed);
+            int kind = operation.nextInt(3);
+            try {
+                if (kind == 0) {
+                    itemService.update(owner.getId(), items.get(operation.nextInt(ITEMS)).getId(),
+                        ItemDto.builder().description("drill " + seed).build());
+                    updates.incrementAndGet();
+                } else if (kind == 1) {
+                    userService.update(UserDto.builder().name("owner " + seed).build(), owner.getId());
+                    updates.incrementAndGet();
+                } else {
+                    approve(created.get(operation.nextInt(created.size())), true);
+                }
+            } catch (ConcurrentUpdateException e) {
+                // retries ran out, answered with 409
+            }
+        }));
+
+        assertTrue(unexpected.isEmpty(), () -> "unexpected failures: " + unexpected);
+        assertTrue(updates.get() > 0);
+    }
+
+    private Long save(Random random) {
+        Item item = items.get(random.nextInt(ITEMS));
+        User booker = bookers.get(random.nextInt(BOOKERS));
+        LocalDateTime start = FIRST_DAY.plusDays(random.nextInt(SLOTS));
+
+        try {
+            return bookingService.save(booker.getId(), ShortBookingDto.builder()
+                .start(start)
+                .end(start.plusDays(1 + random.nextInt(2)))
+                .itemId(item.getId())
+                .build()).getId();
+        } catch (BookingConflictException e) {
+            return null;
+        }
+    }
+
+    private void approve(Long bookingId, boolean approved) {
+        if (bookingId == null) {
+            return;
+        }
+
+        try {
+            bookingService.approve(owner.getId(), bookingId, approved);
+            transitionsByBooking.computeIfAbsent(bookingId, id -> new AtomicInteger()).incrementAndGet();
+        } catch (BookingConflictException | BookingBadRequestException | ConcurrentUpdateException e) {
+            // lost the race: the period is taken, the status is already set or retries ran out
+        }
+    }
+
+    private void run(Stream<Runnable> tasks) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            executor.invokeAll(tasks.map(task -> (Callable<Void>) () -> {
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                }
+                return null;
+            }).collect(Collectors.toList()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingIntervalsTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 10, 12, 0);
+
+    private BookingIntervals intervals;
+
+    @BeforeEach
+    void beforeEach() {
+        intervals = new BookingIntervals();
+        intervals.add(1L, DAY, DAY.plusDays(2));
+        intervals.add(2L, DAY.plusDays(5), DAY.plusDays(6));
+    }
+
+    @Test
+    void overlaps_whenPeriodsIntersect_thenTrue() {
+        assertTrue(intervals.overlaps(DAY.minusDays(1), DAY.plusHours(1)));
+        assertTrue(intervals.overlaps(DAY.plusDays(1), DAY.plusDays(3)));
+        assertTrue(intervals.overlaps(DAY.plusHours(1), DAY.plusHours(2)));
+        assertTrue(intervals.overlaps(DAY.minusDays(1), DAY.plusDays(10)));
+    }
+
+    @Test
+    void overlaps_whenPeriodsOnlyTouch_thenFalse() {
+        assertFalse(intervals.overlaps(DAY.minusDays(1), DAY));
+        assertFalse(intervals.overlaps(DAY.plusDays(2), DAY.plusDays(5)));
+        assertFalse(intervals.overlaps(DAY.plusDays(6), DAY.plusDays(7)));
+    }
+
+    @Test
+    void overlaps_whenLongPeriodStartsEarlier_thenTrue() {
+        intervals.add(3L, DAY.minusDays(60), DAY.minusDays(30));
+        intervals.add(4L, DAY.minusDays(29), DAY.minusDays(28));
+
+        assertTrue(intervals.overlaps(DAY.minusDays(45), DAY.minusDays(44)));
+        assertTrue(intervals.overlaps(DAY.minusDays(31), DAY.minusDays(25)));
+        assertFalse(intervals.overlaps(DAY.minusDays(25), DAY.minusDays(24)));
+        assertFalse(intervals.overlaps(DAY.minusDays(70), DAY.minusDays(60)));
+    }
+
+    @Test
+    void overlaps_whenBookingRemoved_thenPeriodFree() {
+        intervals.remove(1L);
+        intervals.remove(1L);
+
+        assertFalse(intervals.overlaps(DAY, DAY.plusDays(1)));
+        assertEquals(1, intervals.size());
+    }
+
+    @Test
+    void add_whenBookingAddedAgain_thenPeriodReplaced() {
+        intervals.add(2L, DAY.plusDays(8), DAY.plusDays(9));
+
+        assertFalse(intervals.overlaps(DAY.plusDays(5), DAY.plusDays(6)));
+        assertTrue(intervals.overlaps(DAY.plusDays(8), DAY.plusDays(9)));
+        assertEquals(2, intervals.size());
+    }
+}
\ No newline at end of file
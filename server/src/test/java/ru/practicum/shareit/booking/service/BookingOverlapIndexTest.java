@@ -0,0 +1,129 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.transaction.support.*;
+import ru.practicum.shareit.booking.dto.BookingPeriodView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static ru.practicum.shareit.booking.model.Status.APPROVED;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingOverlapIndexTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 10, 12, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+    private BookingOverlapIndex overlapIndex;
+
+    @BeforeEach
+    void beforeEach() {
+        overlapIndex = new BookingOverlapIndex(bookingRepository, 2);
+    }
+
+    @Test
+    void overlaps_whenCalledTwice_thenApprovedPeriodsLoadedOnce() {
+        when(bookingRepository.findPeriodsByItemIdAndStatusEndingAfter(eq(1L), eq(APPROVED), any()))
+            .thenReturn(List.of(period(10L, DAY, DAY.plusDays(1))));
+
+        assertTrue(overlapIndex.overlaps(1L, DAY.plusHours(1), DAY.plusHours(2)));
+        assertFalse(overlapIndex.overlaps(1L, DAY.plusDays(1), DAY.plusDays(2)));
+
+        verify(bookingRepository, times(1)).findPeriodsByItemIdAndStatusEndingAfter(eq(1L), eq(APPROVED), any());
+    }
+
+    @Test
+    void reserve_whenPeriodTaken_thenSecondReservationRefused() {
+        when(bookingRepository.findPeriodsByItemIdAndStatusEndingAfter(eq(1L), eq(APPROVED), any())).thenReturn(List.of());
+
+        assertTrue(overlapIndex.reserve(1L, 10L, DAY, DAY.plusDays(1)));
+        assertFalse(overlapIndex.reserve(1L, 11L, DAY.plusHours(12), DAY.plusDays(2)));
+        assertTrue(overlapIndex.reserve(1L, 11L, DAY.plusDays(1), DAY.plusDays(2)));
+    }
+
+    @Test
+    void release_whenApprovedBookingRejected_thenPeriodFree() {
+        when(bookingRepository.findPeriodsByItemIdAndStatusEndingAfter(eq(1L), eq(APPROVED), any()))
+            .thenReturn(List.of(period(10L, DAY, DAY.plusDays(1))));
+
+        overlapIndex.release(1L, 10L);
+        assertTrue(overlapIndex.overlaps(1L, DAY, DAY.plusDays(1)));
+        overlapIndex.release(1L, 10L);
+
+        assertFalse(overlapIndex.overlaps(1L, DAY, DAY.plusDays(1)));
+    }
+
+    @Test
+    void reserve_whenTransactionRolledBack_thenPeriodsReloaded() {
+        when(bookingRepository.findPeriodsByItemIdAndStatusEndingAfter(eq(1L), eq(APPROVED), any())).thenReturn(List.of())
+            .thenReturn(List.of(period(11L, DAY.plusHours(12), DAY.plusDays(2))));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(overlapIndex.reserve(1L, 10L, DAY, DAY.plusDays(1)));
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(overlapIndex.overlaps(1L, DAY, DAY.plusDays(1)));
+        verify(bookingRepository, times(2)).findPeriodsByItemIdAndStatusEndingAfter(eq(1L), eq(APPROVED), any());
+    }
+
+    @Test
+    void evictAll_whenInvoked_thenPeriodsReloaded() {
+        when(bookingRepository.findPeriodsByItemIdAndStatusEndingAfter(eq(1L), eq(APPROVED), any())).thenReturn(List.of());
+
+        overlapIndex.overlaps(1L, DAY, DAY.plusDays(1));
+        overlapIndex.evictAll();
+        overlapIndex.overlaps(1L, DAY, DAY.plusDays(1));
+
+        verify(bookingRepository, times(2)).findPeriodsByItemIdAndStatusEndingAfter(eq(1L), eq(APPROVED), any());
+    }
+
+    @Test
+    void overlaps_whenMoreItemsThanCapacity_thenLeastRecentlyUsedReloaded() {
+        when(bookingRepository.findPeriodsByItemIdAndStatusEndingAfter(anyLong(), eq(APPROVED), any()))
+            .thenReturn(List.of());
+
+        overlapIndex.overlaps(1L, DAY, DAY.plusDays(1));
+        overlapIndex.overlaps(2L, DAY, DAY.plusDays(1));
+        overlapIndex.overlaps(1L, DAY, DAY.plusDays(1));
+        overlapIndex.overlaps(3L, DAY, DAY.plusDays(1));
+        overlapIndex.overlaps(1L, DAY, DAY.plusDays(1));
+        overlapIndex.overlaps(2L, DAY, DAY.plusDays(1));
+
+        verify(bookingRepository, times(1)).findPeriodsByItemIdAndStatusEndingAfter(eq(1L), eq(APPROVED), any());
+        verify(bookingRepository, times(2)).findPeriodsByItemIdAndStatusEndingAfter(eq(2L), eq(APPROVED), any());
+    }
+
+    @Test
+    void overlaps_whenPeriodStartsBeforeLoad_thenEndedPeriodsCheckedInDatabase() {
+        LocalDateTime past = LocalDateTime.now().minusDays(10);
+        when(bookingRepository.findPeriodsByItemIdAndStatusEndingAfter(eq(1L), eq(APPROVED), any()))
+            .thenReturn(List.of());
+        when(bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(1L, APPROVED, past.plusDays(1), past))
+            .thenReturn(true);
+
+        assertFalse(overlapIndex.overlaps(1L, DAY, DAY.plusDays(1)));
+        assertTrue(overlapIndex.overlaps(1L, past, past.plusDays(1)));
+        assertFalse(overlapIndex.reserve(1L, 10L, past, past.plusDays(1)));
+        verify(bookingRepository, times(2)).existsByItemIdAndStatusAndStartBeforeAndEndAfter(1L, APPROVED,
+            past.plusDays(1), past);
+    }
+
+    private static BookingPeriodView period(long id, LocalDateTime start, LocalDateTime end) {
+        return new SpelAwareProxyProjectionFactory().createProjection(BookingPeriodView.class,
+            Map.of("id", id, "start", start, "end", end));
+    }
+}
\ No newline at end of file
@@ -5,10 +5,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import ru.practicum.shareit.booking.dto.*;
+import ru.practicum.shareit.booking.lock.ItemLockManager;
 import ru.practicum.shareit.booking.model.*;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.core.exception.exceptions.*;
+import ru.practicum.shareit.core.transaction.OptimisticRetry;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
@@ -18,6 +21,7 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,6 +40,14 @@ public class BookingServiceTest {
     private BookingRepository bookingRepository;
     @Mock
     private StartAndEndValidator startAndEndValidator;
+    @Mock
+    private BookingOverlapIndex overlapIndex;
+    @Mock
+    private BookingCalendar calendar;
+    @Mock
+    private OptimisticRetry optimisticRetry;
+    @Mock
+    private ItemLockManager itemLockManager;
     @InjectMocks
     private BookingService bookingService;
     private long bookingId;
@@ -108,11 +120,14 @@ public class BookingServiceTest {
             notOwner,
             REJECTED
         );
+
+        lenient().when(optimisticRetry.execute(any(), any()))
+            .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
     }
 
     @Test
     void saveBooking_whenNotOwnerRequests_thenBookingReturned() {
-        when(itemService.getExistingItem(item.getId())).thenReturn(item);
+        when(itemService.getExistingItemForUpdate(item.getId())).thenReturn(item);
         when(bookingRepository.save(any())).thenReturn(booking);
 
         BookingDto actual = bookingService.save(2L, BookingMapper.toShortBookingDto(booking));
@@ -122,11 +137,59 @@ public class BookingServiceTest {
         assertEquals(booking.getBooker(), actual.getBooker());
         assertEquals(booking.getStart(), actual.getStart());
         verify(bookingRepository).save(any(Booking.class));
+        verify(calendar).evict(item.getId());
+        InOrder inOrder = inOrder(itemLockManager, optimisticRetry, overlapIndex);
+        inOrder.verify(itemLockManager).forItem(item.getId());
+        inOrder.verify(optimisticRetry).execute(any(), any());
+        inOrder.verify(itemLockManager).lockInTransaction(item.getId());
+        inOrder.verify(overlapIndex).overlaps(item.getId(), booking.getStart(), booking.getEnd());
+    }
+
+    @Test
+    void saveBooking_whenLockShared_thenOverlapCheckedInDatabase() {
+        when(itemService.getExistingItemForUpdate(item.getId())).thenReturn(item);
+        when(bookingRepository.save(any())).thenReturn(booking);
+        when(itemLockManager.isShared()).thenReturn(true);
+
+        bookingService.save(2L, BookingMapper.toShortBookingDto(booking));
+
+        InOrder inOrder = inOrder(itemLockManager, bookingRepository);
+        inOrder.verify(itemLockManager).lockInTransaction(item.getId());
+        inOrder.verify(bookingRepository).existsByItemIdAndStatusAndStartBeforeAndEndAfter(
+            item.getId(), APPROVED, booking.getEnd(), booking.getStart());
+        verifyNoInteractions(overlapIndex);
+    }
+
+    @Test
+    void saveBooking_whenPeriodOverlapsApprovedBooking_thenConflictReturned() {
+        when(itemService.getExistingItemForUpdate(item.getId())).thenReturn(item);
+        when(overlapIndex.overlaps(item.getId(), booking.getStart(), booking.getEnd())).thenReturn(true);
+
+        assertThrows(BookingConflictException.class,
+            () -> bookingService.save(2L, BookingMapper.toShortBookingDto(booking)));
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void getAvailability_whenItemsFound_thenFlagsReturnedInRequestedOrder() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(3);
+        SpelAwareProxyProjectionFactory factory = new SpelAwareProxyProjectionFactory();
+        when(bookingRepository.findBusyByItemIdsAndStatusInBetween(List.of(3L, 1L, 2L, 4L), List.of(APPROVED),
+            from, to)).thenReturn(List.of(
+            factory.createProjection(ItemBusyView.class, Map.of("itemId", 1L, "available", true, "busy", 0L)),
+            factory.createProjection(ItemBusyView.class, Map.of("itemId", 2L, "available", true, "busy", 2L)),
+            factory.createProjection(ItemBusyView.class, Map.of("itemId", 3L, "available", false, "busy", 0L))));
+
+        List<AvailabilityFlagDto> actual = bookingService.getAvailability(List.of(3L, 1L, 2L, 4L), from, to);
+
+        assertEquals(List.of(new AvailabilityFlagDto(3L, false), new AvailabilityFlagDto(1L, true),
+            new AvailabilityFlagDto(2L, false)), actual);
     }
 
     @Test
     void saveBooking_whenOwnerRequests_thenExceptionReturned() {
-        when(itemService.getExistingItem(item.getId())).thenReturn(item);
+        when(itemService.getExistingItemForUpdate(item.getId())).thenReturn(item);
 
         assertThrows(BookingNotFoundException.class,
             () -> bookingService.save(1L, BookingMapper.toShortBookingDto(booking)));
@@ -135,7 +198,7 @@ public class BookingServiceTest {
     @Test
     void saveBooking_whenAvailableIsFalse_thenExceptionReturned() {
         item.setAvailable(false);
-        when(itemService.getExistingItem(item.getId())).thenReturn(item);
+        when(itemService.getExistingItemForUpdate(item.getId())).thenReturn(item);
 
         assertThrows(BookingBadRequestException.class,
             () -> bookingService.save(2L, BookingMapper.toShortBookingDto(booking)));
@@ -143,7 +206,7 @@ public class BookingServiceTest {
 
     @Test
     void saveBooking_whenUserNotExists_thenExceptionReturned() {
-        when(itemService.getExistingItem(item.getId())).thenReturn(item);
+        when(itemService.getExistingItemForUpdate(item.getId())).thenReturn(item);
 
         assertThrows(BookingNotFoundException.class,
             () -> bookingService.save(1L, BookingMapper.toShortBookingDto(booking)));
@@ -151,9 +214,12 @@ public class BookingServiceTest {
 
     @Test
     void approveBooking_whenOwnerRequests_thenItemReturned() {
-        when(itemService.getExistingItem(item.getId())).thenReturn(item);
+        when(bookingRepository.findItemIdById(bookingId)).thenReturn(Optional.of(item.getId()));
+        when(itemService.getExistingItemForUpdate(item.getId())).thenReturn(item);
+        when(itemService.getExistingItemForUpdate(item.getId())).thenReturn(item);
         when(bookingRepository.save(any())).thenReturn(booking);
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(booking));
+        when(overlapIndex.reserve(item.getId(), bookingId, booking.getStart(), booking.getEnd())).thenReturn(true);
 
         bookingService.save(2L, BookingMapper.toShortBookingDto(booking));
         bookingService.approve(user.getId(), bookingId, true);
@@ -161,13 +227,45 @@ public class BookingServiceTest {
         verify(bookingRepository, times(2)).save(captor.capture());
         Booking savedBooking = captor.getValue();
         assertEquals(APPROVED, savedBooking.getStatus());
+        verify(calendar, times(2)).evict(item.getId());
+        InOrder inOrder = inOrder(itemLockManager, optimisticRetry, bookingRepository);
+        inOrder.verify(itemLockManager).forItem(item.getId());
+        inOrder.verify(optimisticRetry).execute(any(), any());
+        inOrder.verify(itemLockManager).lockInTransaction(item.getId());
+        inOrder.verify(bookingRepository).findWithItemAndBookerById(bookingId);
+    }
+
+    @Test
+    void approveBooking_whenPeriodAlreadyTaken_thenConflictReturned() {
+        when(bookingRepository.findItemIdById(bookingId)).thenReturn(Optional.of(item.getId()));
+        when(itemService.getExistingItemForUpdate(item.getId())).thenReturn(item);
+        when(bookingRepository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(booking));
+        when(overlapIndex.reserve(item.getId(), bookingId, booking.getStart(), booking.getEnd())).thenReturn(false);
+
+        assertThrows(BookingConflictException.class, () -> bookingService.approve(user.getId(), bookingId, true));
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void approveBooking_whenLockSharedAndPeriodTaken_thenConflictReturnedFromDatabase() {
+        when(bookingRepository.findItemIdById(bookingId)).thenReturn(Optional.of(item.getId()));
+        when(itemService.getExistingItemForUpdate(item.getId())).thenReturn(item);
+        when(bookingRepository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(booking));
+        when(itemLockManager.isShared()).thenReturn(true);
+        when(bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(
+            item.getId(), APPROVED, booking.getEnd(), booking.getStart())).thenReturn(true);
+
+        assertThrows(BookingConflictException.class, () -> bookingService.approve(user.getId(), bookingId, true));
+        verify(bookingRepository, never()).save(any());
+        verifyNoInteractions(overlapIndex);
     }
 
     @Test
     void approveBooking_whenNotOwnerRequests_thenExceptionReturned() {
-        when(itemService.getExistingItem(item.getId())).thenReturn(item);
+        when(bookingRepository.findItemIdById(bookingId)).thenReturn(Optional.of(item.getId()));
+        when(itemService.getExistingItemForUpdate(item.getId())).thenReturn(item);
         when(bookingRepository.save(any())).thenReturn(booking);
-        when(bookingRepository.findById(bookingId)).thenThrow(BookingNotFoundException.class);
+        when(bookingRepository.findWithItemAndBookerById(bookingId)).thenThrow(BookingNotFoundException.class);
 
         bookingService.save(2L, BookingMapper.toShortBookingDto(booking));
 
@@ -178,6 +276,7 @@ public class BookingServiceTest {
 
     @Test
     void approveBooking_whenStatusAlreadyApproved_thenExceptionReturned() {
+        when(bookingRepository.findItemIdById(bookingId)).thenReturn(Optional.of(item.getId()));
         Booking bookingWithStatusAlreadyApproved = new Booking(
             bookingId,
             LocalDateTime.of(2026, 11, 11, 11, 11),
@@ -187,9 +286,9 @@ public class BookingServiceTest {
             APPROVED
         );
 
-        when(itemService.getExistingItem(item.getId())).thenReturn(item);
+        when(itemService.getExistingItemForUpdate(item.getId())).thenReturn(item);
         when(bookingRepository.save(any())).thenReturn(bookingWithStatusAlreadyApproved);
-        when(bookingRepository.findById(bookingId)).thenThrow(BookingBadRequestException.class);
+        when(bookingRepository.findWithItemAndBookerById(bookingId)).thenThrow(BookingBadRequestException.class);
 
         bookingService.save(2L, BookingMapper.toShortBookingDto(bookingWithStatusAlreadyApproved));
 
@@ -197,9 +296,17 @@ public class BookingServiceTest {
         assertThrows(BookingBadRequestException.class, () -> bookingService.approve(notOwner.getId(), bookingId, true));
     }
 
+    @Test
+    void approveBooking_whenBookingNotFound_thenExceptionReturnedWithoutLock() {
+        when(bookingRepository.findItemIdById(bookingId)).thenReturn(Optional.empty());
+
+        assertThrows(BookingNotFoundException.class, () -> bookingService.approve(user.getId(), bookingId, true));
+        verifyNoInteractions(itemLockManager, optimisticRetry);
+    }
+
     @Test
     void findBookingById_whenExists_thenBookingReturned() {
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(booking));
 
         BookingDto actual = bookingService.findById(bookingId, user.getId());
 
@@ -209,7 +316,7 @@ public class BookingServiceTest {
 
     @Test
     void findBookingById_whenNotExists_thenExceptionReturned() {
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.empty());
+        when(bookingRepository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.empty());
 
         assertThrows(BookingNotFoundException.class, () -> bookingService.findById(bookingId, user.getId()));
     }
@@ -217,16 +324,32 @@ public class BookingServiceTest {
     @Test
     void findBookingById_whenOtherUserRequests_thenExceptionReturned() {
         User other = new User(7L, "Phil", "bad@mail.ru");
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(booking));
 
         assertThrows(BookingNotFoundException.class, () -> bookingService.findById(bookingId, other.getId()));
     }
 
+    @Test
+    void getETag_whenBookerRequests_thenVersionsOfBookingGraphReturned() {
+        when(bookingRepository.findVersionById(bookingId)).thenReturn(Optional.of(toVersionView(booking, 3L)));
+
+        String actual = bookingService.getETag(bookingId, notOwner.getId());
+
+        assertEquals("\"booking-1-3-0-0-null-null\"", actual);
+    }
+
+    @Test
+    void getETag_whenOtherUserRequests_thenExceptionReturned() {
+        when(bookingRepository.findVersionById(bookingId)).thenReturn(Optional.of(toVersionView(booking, 3L)));
+
+        assertThrows(BookingNotFoundException.class, () -> bookingService.getETag(bookingId, 7L));
+    }
+
     @Test
     void findByUserIdAndState_whenCurrentFound_thenBookingListReturned() {
         List<Booking> bookings = List.of(bookingWithStatusIsCurrent);
         when(bookingRepository.findByBookerIdCurrent(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-            .thenReturn(List.of(bookingWithStatusIsCurrent));
+            .thenReturn(toListViews(List.of(bookingWithStatusIsCurrent)));
 
         List<Booking> actualBookings = bookingService.findByUserIdAndState(notOwner.getId(), "CURRENT", 0, 10)
             .stream()
@@ -237,11 +360,33 @@ public class BookingServiceTest {
         assertEquals(1, actualBookings.size());
     }
 
+    @Test
+    void findByUserIdAndStateAfter_whenCursorPassed_thenSeekQueryUsed() {
+        BookingDto cursorBooking = BookingMapper.toBookingDto(bookingWithStatusIsPast);
+        when(bookingRepository.findByBookerIdBeforeCursor(notOwner.getId(), cursorBooking.getStart(),
+            cursorBooking.getId(), PageRequest.of(0, 10, SORT)))
+            .thenReturn(toListViews(List.of(bookingWithStatusIsCurrent)));
+
+        List<Booking> actualBookings = bookingService.findByUserIdAndStateAfter(notOwner.getId(), "ALL",
+                BookingCursor.encode(cursorBooking), 10)
+            .stream()
+            .map(BookingMapper::toBookingFromBookingDto)
+            .collect(Collectors.toList());
+
+        assertEquals(List.of(bookingWithStatusIsCurrent), actualBookings);
+    }
+
+    @Test
+    void findByUserIdAndStateAfter_whenCursorMalformed_thenExceptionReturned() {
+        assertThrows(BookingBadRequestException.class,
+            () -> bookingService.findByUserIdAndStateAfter(notOwner.getId(), "ALL", "not-a-cursor", 10));
+    }
+
     @Test
     void findByUserIdAndState_whenPastFound_thenBookingListReturned() {
         List<Booking> bookings = List.of(bookingWithStatusIsPast);
         when(bookingRepository.findByBookerIdAndEndIsBefore(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-            .thenReturn(List.of(bookingWithStatusIsPast));
+            .thenReturn(toListViews(List.of(bookingWithStatusIsPast)));
 
         List<Booking> actualBookings = bookingService.findByUserIdAndState(notOwner.getId(), "PAST", 0, 10)
             .stream()
@@ -256,7 +401,7 @@ public class BookingServiceTest {
     void findByUserIdAndState_whenFutureFound_thenBookingListReturned() {
         List<Booking> bookings = List.of(bookingWithStatusIsFuture);
         when(bookingRepository.findByBookerIdAndStartIsAfter(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-            .thenReturn(List.of(bookingWithStatusIsFuture));
+            .thenReturn(toListViews(List.of(bookingWithStatusIsFuture)));
 
         List<Booking> actualBookings = bookingService.findByUserIdAndState(notOwner.getId(), "FUTURE", 0, 10)
             .stream()
@@ -271,7 +416,7 @@ public class BookingServiceTest {
     void findByUserIdAndState_whenRejectedFound_thenBookingListReturned() {
         List<Booking> bookings = List.of(bookingWithStatusIsRejected);
         when(bookingRepository.findByBookerIdAndStatus(anyLong(), any(Status.class), any(Pageable.class)))
-            .thenReturn(List.of(bookingWithStatusIsRejected));
+            .thenReturn(toListViews(List.of(bookingWithStatusIsRejected)));
 
         List<Booking> actualBookings = bookingService.findByUserIdAndState(notOwner.getId(), "REJECTED", 0, 10)
             .stream()
@@ -286,7 +431,7 @@ public class BookingServiceTest {
     void findByUserIdAndState_whenWaitingFound_thenBookingListReturned() {
         List<Booking> bookings = List.of(booking);
         when(bookingRepository.findByBookerIdAndStatus(anyLong(), any(Status.class), any(Pageable.class)))
-            .thenReturn(List.of(booking));
+            .thenReturn(toListViews(List.of(booking)));
 
         List<Booking> actualBookings = bookingService.findByUserIdAndState(notOwner.getId(), "WAITING", 0, 10)
             .stream()
@@ -300,7 +445,7 @@ public class BookingServiceTest {
     @Test
     void findByUserIdAndState_whenAllFound_thenBookingListReturned() {
         List<Booking> bookings = List.of(booking);
-        when(bookingRepository.findByBookerId(anyLong(), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findByBookerId(anyLong(), any(Pageable.class))).thenReturn(toListViews(List.of(booking)));
 
         List<Booking> actualBookings = bookingService.findByUserIdAndState(notOwner.getId(), "ALL", 0, 10)
             .stream()
@@ -314,7 +459,7 @@ public class BookingServiceTest {
     @Test
     void findByUserIdAndState_whenStateNull_thenBookingListReturned() {
         List<Booking> bookings = List.of(booking);
-        when(bookingRepository.findByBookerId(anyLong(), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findByBookerId(anyLong(), any(Pageable.class))).thenReturn(toListViews(List.of(booking)));
 
         List<Booking> actualBookings = bookingService.findByUserIdAndState(notOwner.getId(), null, 0, 10)
             .stream()
@@ -340,10 +485,10 @@ public class BookingServiceTest {
     @Test
     void findBookingsByItemOwnerId_whenCurrentFound_thenBookingListReturned() {
         List<Booking> bookings = List.of(bookingWithStatusIsCurrent);
-        when(itemService.getExistingItem(item.getId())).thenReturn(item);
+        when(itemService.getExistingItemForUpdate(item.getId())).thenReturn(item);
         when(bookingRepository.save(any())).thenReturn(bookingWithStatusIsCurrent);
         when(bookingRepository.findBookingsByItemOwnerCurrent(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-            .thenReturn(bookings);
+            .thenReturn(toListViews(bookings));
 
         bookingService.save(2L, BookingMapper.toShortBookingDto(bookingWithStatusIsCurrent));
         List<Booking> actualBookings = bookingService.findBookingsByItemOwnerId(1L, "CURRENT", 0, 10)
@@ -358,10 +503,10 @@ public class BookingServiceTest {
     @Test
     void findBookingsByItemOwnerId_whenWaitingFound_thenBookingListReturned() {
         List<Booking> bookings = List.of(booking);
-        when(itemService.getExistingItem(item.getId())).thenReturn(item);
+        when(itemService.getExistingItemForUpdate(item.getId())).thenReturn(item);
         when(bookingRepository.save(any())).thenReturn(booking);
         when(bookingRepository.findBookingsByItemOwnerAndStatus(anyLong(), any(Status.class), any(Pageable.class)))
-            .thenReturn(bookings);
+            .thenReturn(toListViews(bookings));
 
         bookingService.save(2L, BookingMapper.toShortBookingDto(booking));
         List<Booking> actualBookings = bookingService.findBookingsByItemOwnerId(1L, "WAITING", 0, 10)
@@ -376,10 +521,10 @@ public class BookingServiceTest {
     @Test
     void findBookingsByItemOwnerId_whenRejectedFound_thenBookingListReturned() {
         List<Booking> bookings = List.of(bookingWithStatusIsRejected);
-        when(itemService.getExistingItem(item.getId())).thenReturn(item);
+        when(itemService.getExistingItemForUpdate(item.getId())).thenReturn(item);
         when(bookingRepository.save(any())).thenReturn(bookingWithStatusIsRejected);
         when(bookingRepository.findBookingsByItemOwnerAndStatus(anyLong(), any(Status.class), any(Pageable.class)))
-            .thenReturn(bookings);
+            .thenReturn(toListViews(bookings));
 
         bookingService.save(2L, BookingMapper.toShortBookingDto(bookingWithStatusIsRejected));
         List<Booking> actualBookings = bookingService.findBookingsByItemOwnerId(1L, "REJECTED", 0, 10)
@@ -394,10 +539,10 @@ public class BookingServiceTest {
     @Test
     void findBookingsByItemOwnerId_whenFutureFound_thenBookingListReturned() {
         List<Booking> bookings = List.of(bookingWithStatusIsFuture);
-        when(itemService.getExistingItem(item.getId())).thenReturn(item);
+        when(itemService.getExistingItemForUpdate(item.getId())).thenReturn(item);
         when(bookingRepository.save(any())).thenReturn(bookingWithStatusIsFuture);
         when(bookingRepository.findBookingsByItemOwnerAndStartIsAfter(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-            .thenReturn(bookings);
+            .thenReturn(toListViews(bookings));
 
         bookingService.save(2L, BookingMapper.toShortBookingDto(bookingWithStatusIsFuture));
         List<Booking> actualBookings = bookingService.findBookingsByItemOwnerId(1L, "FUTURE", 0, 10)
@@ -412,10 +557,10 @@ public class BookingServiceTest {
     @Test
     void findBookingsByItemOwnerId_whenPastFound_thenBookingListReturned() {
         List<Booking> bookings = List.of(bookingWithStatusIsPast);
-        when(itemService.getExistingItem(item.getId())).thenReturn(item);
+        when(itemService.getExistingItemForUpdate(item.getId())).thenReturn(item);
         when(bookingRepository.save(any())).thenReturn(bookingWithStatusIsPast);
         when(bookingRepository.findBookingsByItemOwnerAndEndIsBefore(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-            .thenReturn(bookings);
+            .thenReturn(toListViews(bookings));
 
         bookingService.save(2L, BookingMapper.toShortBookingDto(bookingWithStatusIsPast));
         List<Booking> actualBookings = bookingService.findBookingsByItemOwnerId(1L, "PAST", 0, 10)
@@ -430,9 +575,9 @@ public class BookingServiceTest {
     @Test
     void findBookingsByItemOwnerId_whenAllFound_thenBookingListReturned() {
         List<Booking> bookings = List.of(bookingWithStatusIsPast);
-        when(itemService.getExistingItem(item.getId())).thenReturn(item);
+        when(itemService.getExistingItemForUpdate(item.getId())).thenReturn(item);
         when(bookingRepository.save(any())).thenReturn(bookingWithStatusIsPast);
-        when(bookingRepository.findBookingsByItemOwner(anyLong(), any(Pageable.class))).thenReturn(bookings);
+        when(bookingRepository.findBookingsByItemOwner(anyLong(), any(Pageable.class))).thenReturn(toListViews(bookings));
 
         bookingService.save(2L, BookingMapper.toShortBookingDto(bookingWithStatusIsPast));
         List<Booking> actualBookings = bookingService.findBookingsByItemOwnerId(1L, "ALL", 0, 10)
@@ -443,4 +588,64 @@ public class BookingServiceTest {
         assertEquals(bookings, actualBookings);
         assertEquals(1, actualBookings.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void fillItemsWithBookings_whenBookingsFound_thenNearestBookingsSet() {
+        Item otherItem = new Item(2L, "saw", "sharp saw", true, 1L, null);
+        ItemDto otherItemDto = ItemMapper.toItemDto(otherItem);
+        when(bookingRepository.findLastBookingsByItemIds(anyCollection(), any(LocalDateTime.class)))
+            .thenReturn(List.of(toView(bookingWithStatusIsCurrent)));
+        when(bookingRepository.findNextBookingsByItemIds(anyCollection(), any(LocalDateTime.class)))
+            .thenReturn(List.of(toView(booking)));
+
+        bookingService.fillItemsWithBookings(List.of(itemDto, otherItemDto));
+
+        assertEquals(bookingWithStatusIsCurrent.getId(), itemDto.getLastBooking().getId());
+        assertEquals(booking.getId(), itemDto.getNextBooking().getId());
+        assertNull(otherItemDto.getLastBooking());
+        assertNull(otherItemDto.getNextBooking());
+        verify(bookingRepository, times(1)).findLastBookingsByItemIds(anyCollection(), any(LocalDateTime.class));
+        verify(bookingRepository, times(1)).findNextBookingsByItemIds(anyCollection(), any(LocalDateTime.class));
+    }
+
+    private List<BookingListView> toListViews(List<Booking> source) {
+        SpelAwareProxyProjectionFactory factory = new SpelAwareProxyProjectionFactory();
+
+        return source.stream()
+            .map(booking -> factory.createProjection(BookingListView.class, Map.ofEntries(
+                Map.entry("id", booking.getId()),
+                Map.entry("startDate", booking.getStart()),
+                Map.entry("endDate", booking.getEnd()),
+                Map.entry("status", booking.getStatus()),
+                Map.entry("itemId", booking.getItem().getId()),
+                Map.entry("itemName", booking.getItem().getName()),
+                Map.entry("itemDescription", booking.getItem().getDescription()),
+                Map.entry("itemAvailable", booking.getItem().getAvailable()),
+                Map.entry("itemOwner", booking.getItem().getOwner()),
+                Map.entry("bookerId", booking.getBooker().getId()),
+                Map.entry("bookerName", booking.getBooker().getName()),
+                Map.entry("bookerEmail", booking.getBooker().getEmail())
+            )))
+            .collect(Collectors.toList());
+    }
+
+    private BookingVersionView toVersionView(Booking source, long version) {
+        return new SpelAwareProxyProjectionFactory().createProjection(BookingVersionView.class, Map.of(
+            "bookerId", source.getBooker().getId(),
+            "itemOwner", source.getItem().getOwner(),
+            "version", version,
+            "itemVersion", source.getItem().getVersion(),
+            "bookerVersion", source.getBooker().getVersion()
+        ));
+    }
+
+    private ShortBookingView toView(Booking source) {
+        return new SpelAwareProxyProjectionFactory().createProjection(ShortBookingView.class, Map.of(
+            "id", source.getId(),
+            "startDate", source.getStart(),
+            "endDate", source.getEnd(),
+            "itemId", source.getItem().getId(),
+            "bookerId", source.getBooker().getId()
+        ));
+    }
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.core;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.*;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.*;
+import ru.practicum.shareit.item.storage.*;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static ru.practicum.shareit.booking.model.Status.APPROVED;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class FetchPlanStatisticsTest {
+    private MockMvc mockMvc;
+    private Statistics statistics;
+    private UserRepository userRepository;
+    private ItemRequestRepository requestRepository;
+    private ItemRepository itemRepository;
+    private BookingRepository bookingRepository;
+    private CommentRepository commentRepository;
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking booking;
+
+    @Autowired
+    public FetchPlanStatisticsTest(MockMvc mockMvc, EntityManagerFactory entityManagerFactory,
+        UserRepository userRepository, ItemRequestRepository requestRepository, ItemRepository itemRepository,
+        BookingRepository bookingRepository, CommentRepository commentRepository) {
+        this.mockMvc = mockMvc;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.userRepository = userRepository;
+        this.requestRepository = requestRepository;
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        owner = userRepository.save(new User(null, "owner", "owner@mail.ru"));
+        booker = userRepository.save(new User(null, "booker", "booker@mail.ru"));
+        ItemRequest request = requestRepository.save(new ItemRequest(null, "need a drill", booker,
+            LocalDateTime.now().minusDays(10)));
+        item = itemRepository.save(new Item(null, "drill", "cordless drill", true, owner.getId(), request));
+        booking = bookingRepository.save(new Booking(null, LocalDateTime.now().minusDays(5),
+            LocalDateTime.now().minusDays(4), item, booker, APPROVED));
+        commentRepository.save(new Comment(null, "works", item, booker, LocalDateTime.now().minusDays(3)));
+    }
+
+    @AfterEach
+    void afterEach() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findBookingById_whenRequested_thenUserAndBookingGraphLoaded() throws Exception {
+        assertStatements(3, get("/bookings/{bookingId}", booking.getId())
+            .header("X-Sharer-User-Id", booker.getId()));
+    }
+
+    @Test
+    void findBookingsByUser_whenRequested_thenUserAndOneJoinedPageLoaded() throws Exception {
+        assertStatements(2, get("/bookings")
+            .header("X-Sharer-User-Id", booker.getId()));
+    }
+
+    @Test
+    void findItemById_whenOwnerRequests_thenCommentsWithAuthorsAndBookingsLoaded() throws Exception {
+        assertStatements(6, get("/items/{itemId}", item.getId())
+            .header("X-Sharer-User-Id", owner.getId()));
+    }
+
+    @Test
+    void saveComment_whenBookerComments_thenNoAssociationsCascade() throws Exception {
+        assertStatements(5, post("/items/{itemId}/comment", item.getId())
+            .header("X-Sharer-User-Id", booker.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"text\": \"still works\"}"));
+    }
+
+    @Test
+    void findItemById_whenETagMatches_thenOnlyVersionQueried() throws Exception {
+        String etag = mockMvc.perform(get("/items/{itemId}", item.getId())
+                .header("X-Sharer-User-Id", owner.getId()))
+            .andReturn().getResponse().getHeader("ETag");
+        statistics.clear();
+
+        mockMvc.perform(get("/items/{itemId}", item.getId())
+                .header("X-Sharer-User-Id", owner.getId())
+                .header("If-None-Match", etag))
+            .andExpect(status().isNotModified());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findItemById_whenUserAndItemCached_thenOnlyCommentsAndBookingsLoaded() throws Exception {
+        mockMvc.perform(get("/items/{itemId}", item.getId())
+            .header("X-Sharer-User-Id", owner.getId()));
+
+        assertStatements(4, get("/items/{itemId}", item.getId())
+            .header("X-Sharer-User-Id", owner.getId()));
+    }
+
+    private void assertStatements(long expected, RequestBuilder request) throws Exception {
+        statistics.clear();
+
+        mockMvc.perform(request).andExpect(status().isOk());
+
+        assertEquals(expected, statistics.getPrepareStatementCount());
+    }
+}
\ No newline at end of file
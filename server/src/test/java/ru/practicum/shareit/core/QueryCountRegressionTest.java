@@ -0,0 +1,214 @@
+package ru.practicum.shareit.core;
+
+import com.fasterxml.jackson.databind.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.*;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.*;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.storage.*;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static ru.practicum.shareit.booking.model.Status.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+// without the second-level cache every entity a page needs shows up as a statement or a load
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class QueryCountRegressionTest {
+    private static final String OWNER = "owner";
+    private static final String BOOKER = "booker";
+    private static final int SEEDED_ITEMS = 120;
+    private static final List<Integer> PAGE_SIZES = List.of(1, 10, 100);
+    private MockMvc mockMvc;
+    private Statistics statistics;
+    private UserRepository userRepository;
+    private ItemRequestRepository requestRepository;
+    private ItemRepository itemRepository;
+    private BookingRepository bookingRepository;
+    private CommentRepository commentRepository;
+    private ItemSearchEngine searchEngine;
+    private Map<String, Long> userIds = new HashMap<>();
+    private List<Long> itemIds = new ArrayList<>();
+    private LocalDateTime seededAt;
+
+    @Autowired
+    public QueryCountRegressionTest(MockMvc mockMvc, EntityManagerFactory entityManagerFactory,
+        UserRepository userRepository, ItemRequestRepository requestRepository, ItemRepository itemRepository,
+        BookingRepository bookingRepository, CommentRepository commentRepository, ItemSearchEngine searchEngine) {
+        this.mockMvc = mockMvc;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.userRepository = userRepository;
+        this.requestRepository = requestRepository;
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        this.searchEngine = searchEngine;
+    }
+
+    @BeforeAll
+    void seed() {
+        User owner = userRepository.save(new User(null, "owner", "owner@mail.ru"));
+        User booker = userRepository.save(new User(null, "booker", "booker@mail.ru"));
+        userIds.put(OWNER, owner.getId());
+        userIds.put(BOOKER, booker.getId());
+        LocalDateTime now = LocalDateTime.now();
+        seededAt = now;
+
+        for (int i = 0; i < SEEDED_ITEMS; i++) {
+            ItemRequest request = requestRepository.save(new ItemRequest(null, "need a drill " + i, booker,
+                now.minusDays(30).plusMinutes(i)));
+            Item item = itemRepository.save(new Item(null, "drill " + i, "cordless drill", true, owner.getId(),
+                request));
+            searchEngine.index(item);
+            itemIds.add(item.getId());
+
+            bookingRepository.saveAll(List.of(
+                new Booking(null, now.minusDays(20).plusMinutes(i), now.minusDays(19), item, booker, APPROVED),
+                new Booking(null, now.minusDays(1).plusMinutes(i), now.plusDays(1), item, booker, APPROVED),
+                new Booking(null, now.plusDays(10).plusMinutes(i), now.plusDays(11), item, booker, WAITING),
+                new Booking(null, now.plusDays(20).plusMinutes(i), now.plusDays(21), item, booker, REJECTED)
+            ));
+            commentRepository.save(new Comment(null, "works " + i, item, booker, now.minusDays(18)));
+        }
+    }
+
+    @AfterAll
+    void cleanUp() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    static Stream<Arguments> pagedEndpoints() {
+        return Stream.of(
+            Arguments.of("/items", OWNER, 2),
+            Arguments.of("/items/search?text=drill", BOOKER, 2),
+            Arguments.of("/requests/all", OWNER, 1),
+            Arguments.of("/bookings?state=ALL", BOOKER, 0),
+            Arguments.of("/bookings?state=CURRENT", BOOKER, 0),
+            Arguments.of("/bookings?state=PAST", BOOKER, 0),
+            Arguments.of("/bookings?state=FUTURE", BOOKER, 0),
+            Arguments.of("/bookings?state=WAITING", BOOKER, 0),
+            Arguments.of("/bookings?state=REJECTED", BOOKER, 0),
+            Arguments.of("/bookings/owner?state=ALL", OWNER, 0),
+            Arguments.of("/bookings/owner?state=CURRENT", OWNER, 0),
+            Arguments.of("/bookings/owner?state=PAST", OWNER, 0),
+            Arguments.of("/bookings/owner?state=FUTURE", OWNER, 0),
+            Arguments.of("/bookings/owner?state=WAITING", OWNER, 0),
+            Arguments.of("/bookings/owner?state=REJECTED", OWNER, 0)
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("pagedEndpoints")
+    void pagedEndpoint_whenPageSizeGrows_thenStatementCountStaysFlat(String path, String user, int entitiesPerRow)
+        throws Exception {
+        countStatements(path, user, PAGE_SIZES.get(0));
+        Map<Integer, Long> counts = new LinkedHashMap<>();
+        Map<Integer, Long> loads = new LinkedHashMap<>();
+
+        for (int size : PAGE_SIZES) {
+            counts.put(size, countStatements(path, user, size));
+            loads.put(size, statistics.getEntityLoadCount());
+            assertEquals(0, statistics.getSecondLevelCacheHitCount(), path + " hit the second-level cache");
+        }
+
+        for (int size : PAGE_SIZES) {
+            assertEquals(counts.get(PAGE_SIZES.get(0)), counts.get(size), path + " statements by page size: " + counts);
+            assertEquals(loads.get(PAGE_SIZES.get(0)) + (long) entitiesPerRow * (size - PAGE_SIZES.get(0)),
+                loads.get(size), path + " entity loads by page size: " + loads);
+        }
+    }
+
+    @Test
+    void bulkAvailability_whenItemCountGrows_thenSingleStatement() throws Exception {
+        countAvailabilityStatements(1, seededAt.plusDays(2), seededAt.plusDays(5), true);
+
+        for (int count : PAGE_SIZES) {
+            assertEquals(1, countAvailabilityStatements(count, seededAt.plusDays(2), seededAt.plusDays(5), true));
+            assertEquals(1, countAvailabilityStatements(count, seededAt, seededAt.plusHours(1), false));
+            assertEquals(1, countAvailabilityStatements(count, seededAt.plusDays(10).plusHours(1),
+                seededAt.plusDays(10).plusHours(2), true));
+        }
+    }
+
+    @Test
+    void bookingListing_whenItemAnswersRequest_thenEntryMatchesSingleBooking() throws Exception {
+        JsonNode listed = json(mockMvc.perform(get("/bookings?state=ALL&from=0&size=1")
+                .header("X-Sharer-User-Id", userIds.get(BOOKER)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString()).get(0);
+        JsonNode single = json(mockMvc.perform(get("/bookings/" + listed.get("id").asLong())
+                .header("X-Sharer-User-Id", userIds.get(BOOKER)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString());
+
+        assertTrue(listed.get("item").get("request").has("requester"));
+        assertEquals(single, listed);
+    }
+
+    private static JsonNode json(String body) throws Exception {
+        return new ObjectMapper().readTree(body);
+    }
+
+    private long countAvailabilityStatements(int count, LocalDateTime from, LocalDateTime to, boolean free)
+        throws Exception {
+        statistics.clear();
+
+        mockMvc.perform(post("/items/availability")
+                .header("X-Sharer-User-Id", userIds.get(BOOKER))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"itemIds\":" + itemIds.subList(0, count) + ",\"from\":\"" + from + "\",\"to\":\"" + to
+                    + "\"}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(count))
+            .andExpect(jsonPath("$[0].itemId").value(itemIds.get(0)))
+            .andExpect(jsonPath("$[" + (count - 1) + "].free").value(free));
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long countStatements(String path, String user, int size) throws Exception {
+        statistics.clear();
+
+        mockMvc.perform(get(path)
+                .header("X-Sharer-User-Id", userIds.get(user))
+                .param("from", "0")
+                .param("size", String.valueOf(size)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(size));
+
+        return statistics.getPrepareStatementCount();
+    }
+}
\ No newline at end of file
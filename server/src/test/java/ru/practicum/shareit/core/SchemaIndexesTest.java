@@ -0,0 +1,78 @@
+package ru.practicum.shareit.core;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class SchemaIndexesTest {
+    private TestEntityManager entityManager;
+
+    @Autowired
+    public SchemaIndexesTest(TestEntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Test
+    void migrations_whenApplied_thenIndexesMatchQueryShapes() {
+        assertEquals(List.of("BOOKER_ID ASC", "START_DATE DESC", "BOOKING_ID DESC"),
+            indexColumns("IDX_BOOKINGS_BOOKER_START_ID"));
+        assertEquals(List.of("BOOKER_ID ASC", "STATUS ASC", "START_DATE DESC", "BOOKING_ID DESC"),
+            indexColumns("IDX_BOOKINGS_BOOKER_STATUS_START_ID"));
+        assertEquals(List.of("ITEM_ID ASC", "START_DATE DESC", "BOOKING_ID DESC"),
+            indexColumns("IDX_BOOKINGS_ITEM_START_ID"));
+        assertEquals(List.of("ITEM_ID ASC", "BOOKER_ID ASC", "END_DATE ASC"),
+            indexColumns("IDX_BOOKINGS_ITEM_BOOKER_END"));
+        assertEquals(List.of("OWNER_ID ASC"), indexColumns("IDX_ITEMS_OWNER"));
+        assertEquals(List.of("REQUEST_ID ASC"), indexColumns("IDX_ITEMS_REQUEST"));
+        assertEquals(List.of("ITEM_ID ASC"), indexColumns("IDX_COMMENTS_ITEM"));
+        assertEquals(List.of("REQUESTER_ID ASC", "CREATED DESC"), indexColumns("IDX_REQUESTS_REQUESTER_CREATED"));
+    }
+
+    @Test
+    void lastAndNextBookingLookup_whenExplained_thenItemStartIndexUsed() {
+        assertUsesIndex("IDX_BOOKINGS_ITEM_START_ID",
+            "select * from bookings where item_id in (1, 2) and start_date < now()");
+    }
+
+    @Test
+    void bookingsToAddComment_whenExplained_thenItemBookerEndIndexUsed() {
+        assertUsesIndex("IDX_BOOKINGS_ITEM_BOOKER_END",
+            "select * from bookings where item_id = 1 and booker_id = 1 and end_date < now()");
+    }
+
+    @Test
+    void bookerKeysetPage_whenExplained_thenBookerStartIdIndexUsed() {
+        assertUsesIndex("IDX_BOOKINGS_BOOKER_START_ID",
+            "select * from bookings where booker_id = 1 and start_date <= now() " +
+                "and (start_date < now() or booking_id < 10) order by start_date desc, booking_id desc");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> indexColumns(String index) {
+        List<Object[]> rows = entityManager.getEntityManager()
+            .createNativeQuery("select column_name, ordering_specification " +
+                "from information_schema.index_columns " +
+                "where index_name = ?1 " +
+                "order by ordinal_position")
+            .setParameter(1, index)
+            .getResultList();
+
+        return rows.stream()
+            .map(row -> row[0] + " " + row[1])
+            .collect(Collectors.toList());
+    }
+
+    private void assertUsesIndex(String index, String query) {
+        String plan = String.valueOf(entityManager.getEntityManager()
+            .createNativeQuery("explain " + query)
+            .getSingleResult());
+
+        assertTrue(plan.toUpperCase().contains(index), plan);
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.core.cache;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class SecondLevelCacheTest {
+    private MockMvc mockMvc;
+    private UserRepository userRepository;
+    private ItemRequestRepository requestRepository;
+    private ItemRepository itemRepository;
+    private User owner;
+    private User requester;
+    private ItemRequest request;
+    private Item item;
+
+    @Autowired
+    public SecondLevelCacheTest(MockMvc mockMvc, UserRepository userRepository,
+        ItemRequestRepository requestRepository, ItemRepository itemRepository) {
+        this.mockMvc = mockMvc;
+        this.userRepository = userRepository;
+        this.requestRepository = requestRepository;
+        this.itemRepository = itemRepository;
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        owner = userRepository.save(new User(null, "owner", "owner@mail.ru"));
+        requester = userRepository.save(new User(null, "requester", "requester@mail.ru"));
+        request = requestRepository.save(new ItemRequest(null, "need a drill", requester, LocalDateTime.now()));
+        item = itemRepository.save(new Item(null, "drill", "cordless drill", true, owner.getId(), request));
+    }
+
+    @AfterEach
+    void afterEach() {
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void updateUserAndItem_whenCached_thenNewStateReturned() throws Exception {
+        mockMvc.perform(get("/users/{userId}", owner.getId()));
+        mockMvc.perform(get("/items/{itemId}", item.getId()).header("X-Sharer-User-Id", owner.getId()));
+
+        mockMvc.perform(patch("/users/{userId}", owner.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"renamed\"}"))
+            .andExpect(status().isOk());
+        mockMvc.perform(patch("/items/{itemId}", item.getId())
+                .header("X-Sharer-User-Id", owner.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"hammer drill\"}"))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/users/{userId}", owner.getId()))
+            .andExpect(jsonPath("$.name").value("renamed"));
+        mockMvc.perform(get("/items/{itemId}", item.getId()).header("X-Sharer-User-Id", owner.getId()))
+            .andExpect(jsonPath("$.name").value("hammer drill"));
+    }
+
+    @Test
+    void deleteUser_whenItemsAndRequestsCached_thenCascadedRowsNotFound() throws Exception {
+        mockMvc.perform(get("/items/{itemId}", item.getId()).header("X-Sharer-User-Id", owner.getId()))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/requests/{requestId}", request.getId()).header("X-Sharer-User-Id", owner.getId()))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/users/{userId}", owner.getId()))
+            .andExpect(status().isOk());
+        mockMvc.perform(delete("/users/{userId}", requester.getId()))
+            .andExpect(status().isOk());
+        User other = userRepository.save(new User(null, "other", "other@mail.ru"));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        mockMvc.perform(post("/bookings")
+                .header("X-Sharer-User-Id", other.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"itemId\": " + item.getId() + ", \"start\": \"" + start + "\", \"end\": \""
+                    + start.plusDays(1) + "\"}"))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(post("/items")
+                .header("X-Sharer-User-Id", other.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"saw\", \"description\": \"saw\", \"available\": true, "
+                    + "\"requestId\": " + request.getId() + "}"))
+            .andExpect(status().isNotFound());
+    }
+}
\ No newline at end of file
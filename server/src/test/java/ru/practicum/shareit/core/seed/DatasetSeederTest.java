@@ -0,0 +1,86 @@
+package ru.practicum.shareit.core.seed;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.validation.*;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:seed",
+    "shareit.seed.users=50",
+    "shareit.seed.items=200",
+    "shareit.seed.requests=20",
+    "shareit.seed.bookings=2000",
+    "shareit.seed.comments=300",
+    "shareit.seed.batch-size=128"
+})
+@ActiveProfiles({"test", "seed"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class DatasetSeederTest {
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public DatasetSeederTest(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Test
+    void run_whenSeedProfileActive_thenConfiguredVolumesInserted() {
+        assertEquals(50, count("select count(*) from users"));
+        assertEquals(200, count("select count(*) from items"));
+        assertEquals(20, count("select count(*) from requests"));
+        assertEquals(20, count("select count(*) from items where request_id is not null"));
+        assertEquals(2000, count("select count(*) from bookings"));
+        assertEquals(300, count("select count(*) from comments"));
+    }
+
+    @Test
+    void run_whenSeedProfileActive_thenOwnersAndItemsSkewed() {
+        long topOwnerItems = count("select max(cnt) from (select count(*) cnt from items group by owner_id) t");
+        long topItemBookings = count("select max(cnt) from (select count(*) cnt from bookings group by item_id) t");
+
+        assertTrue(topOwnerItems > 200 / 50 * 5, "top owner has " + topOwnerItems + " items");
+        assertTrue(topItemBookings > 2000 / 200 * 10, "top item has " + topItemBookings + " bookings");
+    }
+
+    @Test
+    void run_whenSeedProfileActive_thenOwnersNeverBookTheirItems() {
+        assertEquals(0, count("select count(*) from bookings b join items i on i.item_id = b.item_id " +
+            "where b.booker_id = i.owner_id"));
+    }
+
+    @Test
+    void run_whenSeedProfileActive_thenApprovedPeriodsOfItemNeverOverlap() {
+        assertTrue(count("select count(*) from bookings where status = 'APPROVED'") > 0);
+        assertEquals(0, count("select count(*) from bookings a join bookings b on a.item_id = b.item_id " +
+            "and a.booking_id < b.booking_id and a.start_date < b.end_date and b.start_date < a.end_date " +
+            "where a.status = 'APPROVED' and b.status = 'APPROVED'"));
+    }
+
+    @Test
+    void properties_whenTooFewUsersOrItems_thenInvalid() {
+        SeedProperties properties = new SeedProperties();
+        properties.setUsers(1);
+        properties.setItems(0);
+
+        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+            Set<String> invalid = factory.getValidator().validate(properties).stream()
+                .map(violation -> violation.getPropertyPath().toString())
+                .collect(Collectors.toSet());
+
+            assertEquals(Set.of("users", "items"), invalid);
+        }
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
\ No newline at end of file
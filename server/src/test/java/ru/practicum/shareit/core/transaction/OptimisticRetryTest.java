@@ -0,0 +1,149 @@
+package ru.practicum.shareit.core.transaction;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.*;
+import ru.practicum.shareit.core.exception.exceptions.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class OptimisticRetryTest {
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry registry;
+    private OptimisticRetry optimisticRetry;
+
+    @BeforeEach
+    void beforeEach() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        registry = new SimpleMeterRegistry();
+        optimisticRetry = new OptimisticRetry(transactionManager, 3, 0, registry);
+    }
+
+    @Test
+    void execute_whenConflictThenSuccess_thenRetriedInNewTransaction() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = optimisticRetry.execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("stale");
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(2)).rollback(any());
+        assertEquals(2, registry.counter("shareit.transaction.retries", "result", "retried").count());
+    }
+
+    @Test
+    void execute_whenConflictsExhaustAttempts_thenConflictReturned() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(ConcurrentUpdateException.class, () -> optimisticRetry.execute(() -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockingFailureException("stale");
+        }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(1, registry.counter("shareit.transaction.retries", "result", "exhausted").count());
+    }
+
+    @Test
+    void execute_whenOtherFailure_thenNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(BookingBadRequestException.class, () -> optimisticRetry.execute(() -> {
+            attempts.incrementAndGet();
+            throw new BookingBadRequestException("bad");
+        }));
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void execute_whenLockGiven_thenHeldAroundEachTransaction() {
+        List<String> events = new ArrayList<>();
+        doAnswer(invocation -> {
+            events.add("begin");
+            return null;
+        }).when(transactionManager).getTransaction(any());
+        doAnswer(invocation -> events.add("commit")).when(transactionManager).commit(any());
+        doAnswer(invocation -> events.add("rollback")).when(transactionManager).rollback(any());
+        AtomicInteger attempts = new AtomicInteger();
+
+        optimisticRetry.execute(recording(events), () -> {
+            if (attempts.incrementAndGet() < 2) {
+                throw new OptimisticLockingFailureException("stale");
+            }
+            return "done";
+        });
+
+        assertEquals(List.of("lock", "begin", "rollback", "unlock", "lock", "begin", "commit", "unlock"), events);
+    }
+
+    @Test
+    void execute_whenLockNotAcquired_thenNoTransactionStarted() {
+        AttemptLock busy = new AttemptLock() {
+            @Override
+            public void lock() {
+                throw new ConcurrentUpdateException("busy");
+            }
+
+            @Override
+            public void unlock() {
+                fail("not locked");
+            }
+        };
+
+        assertThrows(ConcurrentUpdateException.class, () -> optimisticRetry.execute(busy, () -> "done"));
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void execute_whenOuterTransaction_thenUnlockedAfterItsOtherCallbacks() {
+        List<String> events = new ArrayList<>();
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            optimisticRetry.execute(recording(events), () -> {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        events.add("callback");
+                    }
+                });
+                return "done";
+            });
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of("lock", "callback", "unlock"), events);
+        verifyNoInteractions(transactionManager);
+    }
+
+    private static AttemptLock recording(List<String> events) {
+        return new AttemptLock() {
+            @Override
+            public void lock() {
+                events.add("lock");
+            }
+
+            @Override
+            public void unlock() {
+                events.add("unlock");
+            }
+        };
+    }
+}
@@ -104,6 +104,19 @@ public class ItemControllerTest {
             .andExpect(status().isNotFound());
     }
 
+    @Test
+    public void findItem_whenETagMatches_thenStatus304() throws Exception {
+        when(itemServiceInterface.getETag(anyLong(), anyLong())).thenReturn("\"item-1-0-0-0-0\"");
+
+        mockMvc.perform(get("/items/{itemId}", 1)
+                .header("X-Sharer-User-Id", 1)
+                .header("If-None-Match", "\"item-1-0-0-0-0\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", "\"item-1-0-0-0-0\""));
+
+        verify(itemServiceInterface, never()).findById(anyLong(), anyLong());
+    }
+
     @Test
     public void findAll_whenInvoked_thenStatus200andReturnItemList() throws Exception {
         List<ItemDto> expectedItems = List.of(itemDto);
@@ -159,4 +172,56 @@ public class ItemControllerTest {
                     .contentType(MediaType.APPLICATION_JSON))
             .andExpect(status().isNotFound());
     }
+
+    @Test
+    public void getAvailability_whenInvoked_thenStatus200andPeriodsReturned() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(3);
+        ItemAvailabilityDto availability = new ItemAvailabilityDto(1L, from, to, List.of(
+            new AvailabilityPeriodDto(from, from.plusDays(1), true),
+            new AvailabilityPeriodDto(from.plusDays(1), to, false)));
+        when(itemServiceInterface.getAvailability(1L, 1L, from, to)).thenReturn(availability);
+
+        mockMvc.perform(
+                get("/items/{itemId}/availability", 1)
+                    .header("X-Sharer-User-Id", 1)
+                    .param("from", "2030-01-01T00:00:00")
+                    .param("to", "2030-01-04T00:00:00"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.itemId").value(1))
+            .andExpect(jsonPath("$.periods[0].free").value(true))
+            .andExpect(jsonPath("$.periods[1].free").value(false))
+            .andExpect(jsonPath("$.periods[1].end").value("2030-01-04T00:00:00"));
+    }
+
+    @Test
+    public void getAvailability_whenRangeEmpty_thenStatus400() throws Exception {
+        when(itemServiceInterface.getAvailability(anyLong(), anyLong(), any(), any()))
+            .thenThrow(ItemBadRequestException.class);
+
+        mockMvc.perform(
+                get("/items/{itemId}/availability", 1)
+                    .header("X-Sharer-User-Id", 1)
+                    .param("from", "2030-01-01T00:00:00")
+                    .param("to", "2030-01-01T00:00:00"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getBulkAvailability_whenInvoked_thenStatus200andFlagsReturned() throws Exception {
+        AvailabilityRequestDto dto = new AvailabilityRequestDto(List.of(1L, 2L),
+            LocalDateTime.of(2030, 1, 1, 0, 0), LocalDateTime.of(2030, 1, 4, 0, 0));
+        when(itemServiceInterface.getAvailability(anyLong(), any(AvailabilityRequestDto.class)))
+            .thenReturn(List.of(new AvailabilityFlagDto(1L, true), new AvailabilityFlagDto(2L, false)));
+
+        mockMvc.perform(
+                post("/items/availability")
+                    .header("X-Sharer-User-Id", 1)
+                    .content(objectMapper.writeValueAsString(dto))
+                    .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].itemId").value(1))
+            .andExpect(jsonPath("$[0].free").value(true))
+            .andExpect(jsonPath("$[1].free").value(false));
+    }
 }
\ No newline at end of file
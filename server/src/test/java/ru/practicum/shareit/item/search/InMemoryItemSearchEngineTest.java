@@ -0,0 +1,98 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InMemoryItemSearchEngineTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private InMemoryItemSearchEngine searchEngine;
+    private Item drill;
+    private Item saw;
+    private Item unavailableDrill;
+
+    @BeforeEach
+    public void init() {
+        drill = new Item(1L, "Дрель", "Аккумуляторная дрель", true, 1L, null);
+        saw = new Item(2L, "Пила", "Пила для дрели и досок", true, 1L, null);
+        unavailableDrill = new Item(3L, "Дрель ударная", "Сломана", false, 1L, null);
+
+        when(itemRepository.findAll()).thenReturn(List.of(drill, saw, unavailableDrill));
+        searchEngine.load();
+    }
+
+    @Test
+    void search_whenNameAndDescriptionMatch_thenNameMatchesRankedFirst() {
+        when(itemRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(saw, drill));
+
+        List<Item> actual = searchEngine.search("ДРЕЛ", PageRequest.of(0, 10));
+
+        assertEquals(List.of(drill, saw), actual);
+    }
+
+    @Test
+    void search_whenPaged_thenOnlyRequestedWindowLoaded() {
+        when(itemRepository.findAllById(List.of(2L))).thenReturn(List.of(saw));
+
+        List<Item> actual = searchEngine.search("дрел", PageRequest.of(1, 1));
+
+        assertEquals(List.of(saw), actual);
+    }
+
+    @Test
+    void search_whenTextInsideWord_thenMatchedAsSubstring() {
+        when(itemRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(drill, saw));
+
+        assertEquals(List.of(drill, saw), searchEngine.search("рел", PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void search_whenSeveralWords_thenWholePhraseMatched() {
+        when(itemRepository.findAllById(List.of(2L))).thenReturn(List.of(saw));
+        when(itemRepository.findAllById(List.of())).thenReturn(List.of());
+
+        assertEquals(List.of(saw), searchEngine.search("для дрели", PageRequest.of(0, 10)));
+        assertEquals(List.of(), searchEngine.search("дрели для", PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void rebuild_whenItemsRemovedInBulk_thenIndexReloaded() {
+        when(itemRepository.findAll()).thenReturn(List.of(saw));
+        when(itemRepository.findAllById(List.of(2L))).thenReturn(List.of(saw));
+
+        searchEngine.rebuild();
+
+        assertEquals(List.of(saw), searchEngine.search("дрел", PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void search_whenItemUpdated_thenIndexReflectsNewText() {
+        drill.setName("Перфоратор");
+        drill.setDescription("Мощный");
+        searchEngine.index(drill);
+        when(itemRepository.findAllById(List.of(1L))).thenReturn(List.of(drill));
+
+        assertEquals(List.of(drill), searchEngine.search("перфоратор", PageRequest.of(0, 10)));
+        verify(itemRepository, never()).findAllById(List.of(1L, 2L));
+        assertEquals(List.of(), searchEngine.search("аккумуляторная", PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void search_whenNothingMatches_thenEmptyListReturned() {
+        when(itemRepository.findAllById(List.of())).thenReturn(List.of());
+
+        assertTrue(searchEngine.search("молоток", PageRequest.of(0, 10)).isEmpty());
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "db.name = test")
+@DirtiesContext
+public class ItemSearchEngineParityTest {
+    private static final List<String> QUERIES = List.of("ool", "TOOL", "oo", "t", "cordless drill", "drill cordless",
+        "дрел", "ДРЕЛИ ДЛЯ", "для дрели", " ", "saw");
+
+    private final ItemRepository itemRepository;
+    private final TestEntityManager entityManager;
+    private DatabaseItemSearchEngine databaseEngine;
+    private InMemoryItemSearchEngine inMemoryEngine;
+
+    @Autowired
+    public ItemSearchEngineParityTest(ItemRepository itemRepository, TestEntityManager entityManager) {
+        this.itemRepository = itemRepository;
+        this.entityManager = entityManager;
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        User owner = entityManager.persist(User.builder().name("owner").email("owner@mail.ru").build());
+        persist(owner, "tool", "cool tool", true);
+        persist(owner, "Cordless drill", "18V", true);
+        persist(owner, "Drill", "cordless drill with two batteries", true);
+        persist(owner, "Toolbox", "metal", true);
+        persist(owner, "Дрель", "Аккумуляторная дрель", true);
+        persist(owner, "Пила", "Пила для дрели и досок", true);
+        persist(owner, "Stool", "wooden", true);
+        persist(owner, "tool kit", "broken", false);
+        entityManager.flush();
+
+        databaseEngine = new DatabaseItemSearchEngine(itemRepository);
+        inMemoryEngine = new InMemoryItemSearchEngine(itemRepository);
+        inMemoryEngine.load();
+    }
+
+    @Test
+    void search_whenSameQuery_thenBothEnginesReturnSameItemsInSameOrder() {
+        for (String query : QUERIES) {
+            assertEquals(ids(databaseEngine.search(query, PageRequest.of(0, 20))),
+                ids(inMemoryEngine.search(query, PageRequest.of(0, 20))), () -> "query \"" + query + "\"");
+        }
+        assertFalse(ids(inMemoryEngine.search("ool", PageRequest.of(0, 20))).isEmpty());
+    }
+
+    @Test
+    void search_whenPaged_thenBothEnginesReturnSameWindow() {
+        for (int page = 0; page < 3; page++) {
+            assertEquals(ids(databaseEngine.search("o", PageRequest.of(page, 2))),
+                ids(inMemoryEngine.search("o", PageRequest.of(page, 2))), "page " + page);
+        }
+    }
+
+    private void persist(User owner, String name, String description, boolean available) {
+        entityManager.persist(Item.builder()
+            .name(name)
+            .description(description)
+            .available(available)
+            .owner(owner.getId())
+            .build());
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
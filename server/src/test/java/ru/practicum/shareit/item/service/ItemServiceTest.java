@@ -5,10 +5,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.practicum.shareit.booking.service.BookingCalendar;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.core.exception.exceptions.*;
+import ru.practicum.shareit.core.transaction.OptimisticRetry;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.*;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.storage.*;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -16,8 +20,10 @@ import ru.practicum.shareit.user.dto.*;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.*;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,6 +42,16 @@ public class ItemServiceTest {
     private BookingService bookingService;
     @Mock
     private ItemRequestService requestService;
+    @Mock
+    private ItemSearchEngine searchEngine;
+    @Mock
+    private OwnerItemCountCache ownerItemCountCache;
+    @Mock
+    private BookingCalendar bookingCalendar;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private OptimisticRetry optimisticRetry;
     @InjectMocks
     private ItemService itemService;
     private long itemId;
@@ -126,6 +142,7 @@ public class ItemServiceTest {
 
     @Test
     void saveComment_whenInvoked_thenCommentReturned() {
+        runRetriedInline();
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(expectedItem));
         doNothing().when(bookingService).validateBookingsToAddComment(anyLong(), anyLong());
         when(commentRepository.save(any())).thenReturn(expectedComment);
@@ -136,10 +153,12 @@ public class ItemServiceTest {
         assertEquals(expectedComment.getCreated(), actual.getCreated());
         assertEquals(expectedComment.getText(), actual.getText());
         verify(commentRepository).save(any(Comment.class));
+        verify(entityManager).lock(expectedItem, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
     }
 
     @Test
     void findItemById_whenCommentsNotEmpty_thenItemReturned() {
+        runRetriedInline();
         when(commentRepository.save(any())).thenReturn(expectedComment);
         List<Comment> comments = List.of(expectedComment);
         when(commentRepository.findAllByItemId(itemId)).thenReturn(comments);
@@ -154,6 +173,24 @@ public class ItemServiceTest {
         assertEquals(commentDto.getText(), actual.getComments().get(0).getText());
     }
 
+    @Test
+    void getETag_whenOwnerRequests_thenBookingVersionsIncluded() {
+        when(itemRepository.findVersionById(eq(itemId), any())).thenReturn(Optional.of(toVersionView()));
+
+        String owner = itemService.getETag(userId, itemId);
+        String notOwnerTag = itemService.getETag(notOwner.getId(), itemId);
+
+        assertEquals("\"item-1-2-2030-01-01T10:00\"", owner);
+        assertEquals("\"item-1-2\"", notOwnerTag);
+    }
+
+    @Test
+    void getETag_whenItemNotFound_thenExceptionReturned() {
+        when(itemRepository.findVersionById(eq(itemId), any())).thenReturn(Optional.empty());
+
+        assertThrows(ItemNotFoundException.class, () -> itemService.getETag(userId, itemId));
+    }
+
     @Test
     void findItemById_whenItemNotFound_thenExceptionReturned() {
         when(itemRepository.findById(itemId)).thenReturn(Optional.empty());
@@ -166,6 +203,79 @@ public class ItemServiceTest {
         assertThrows(ItemNotFoundException.class, () -> itemService.findById(userId, itemId));
     }
 
+    @Test
+    void getAvailability_whenItemFound_thenPeriodsReturned() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        List<AvailabilityPeriodDto> periods = List.of(new AvailabilityPeriodDto(from, to, true));
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(expectedItem));
+        when(bookingCalendar.getAvailability(itemId, from, to)).thenReturn(periods);
+
+        ItemAvailabilityDto actual = itemService.getAvailability(userId, itemId, from, to);
+
+        assertEquals(itemId, actual.getItemId());
+        assertEquals(from, actual.getFrom());
+        assertEquals(to, actual.getTo());
+        assertEquals(periods, actual.getPeriods());
+    }
+
+    @Test
+    void getAvailability_whenRangeEmpty_thenExceptionReturned() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(expectedItem));
+
+        assertThrows(ItemBadRequestException.class, () -> itemService.getAvailability(userId, itemId, from, from));
+        verifyNoInteractions(bookingCalendar);
+    }
+
+    @Test
+    void getAvailability_whenItemNotFound_thenExceptionReturned() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(itemRepository.findById(itemId)).thenReturn(Optional.empty());
+
+        assertThrows(ItemNotFoundException.class,
+            () -> itemService.getAvailability(userId, itemId, from, from.plusDays(1)));
+    }
+
+    @Test
+    void getBulkAvailability_whenIdsRepeated_thenDistinctIdsQueried() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        List<AvailabilityFlagDto> flags = List.of(new AvailabilityFlagDto(2L, true), new AvailabilityFlagDto(1L, false));
+        when(bookingService.getAvailability(new LinkedHashSet<>(List.of(2L, 1L)), from, from.plusDays(1)))
+            .thenReturn(flags);
+
+        List<AvailabilityFlagDto> actual = itemService.getAvailability(userId,
+            new AvailabilityRequestDto(List.of(2L, 1L, 2L), from, from.plusDays(1)));
+
+        assertEquals(flags, actual);
+    }
+
+    @Test
+    void getBulkAvailability_whenNoIds_thenNothingQueried() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        assertTrue(itemService.getAvailability(userId, new AvailabilityRequestDto(List.of(), from, from.plusDays(1)))
+            .isEmpty());
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void getBulkAvailability_whenRangeEmpty_thenExceptionReturned() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        assertThrows(ItemBadRequestException.class,
+            () -> itemService.getAvailability(userId, new AvailabilityRequestDto(List.of(1L), from, from)));
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void getExistingItemForUpdate_whenItemFound_thenVersionIncrementRequested() {
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(expectedItem));
+
+        assertSame(expectedItem, itemService.getExistingItemForUpdate(itemId));
+        verify(entityManager).lock(expectedItem, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+    }
+
     @Test
     void findItems_whenItemsFound_thenItemListReturned() {
         expectedItem.setOwner(null);
@@ -204,7 +314,7 @@ public class ItemServiceTest {
         expectedItem.setOwner(null);
         Pageable pageable = PageRequest.of(0, 10);
         List<Item> items = List.of(expectedItem);
-        when(itemRepository.search("tool", pageable)).thenReturn(items);
+        when(searchEngine.search("tool", pageable)).thenReturn(items);
 
         List<Item> actualItems = itemService.search(userId, "tool", 0, 10)
             .stream()
@@ -213,7 +323,7 @@ public class ItemServiceTest {
 
         assertEquals(items, actualItems);
         assertEquals(1, actualItems.size());
-        verify(itemRepository, times(1)).search("tool", pageable);
+        verify(searchEngine, times(1)).search("tool", pageable);
     }
 
     @Test
@@ -231,6 +341,7 @@ public class ItemServiceTest {
 
     @Test
     void updateItem_whenOwnerRequests_thenItemReturned() {
+        runRetriedInline();
         Item updatedItem = new Item();
         updatedItem.setName("Upd");
         updatedItem.setDescription("upd");
@@ -251,6 +362,7 @@ public class ItemServiceTest {
 
     @Test
     void updateItem_whenNotOwnerRequests_thenExceptionReturned() {
+        runRetriedInline();
         Item updatedItem = new Item();
         updatedItem.setName("Upd");
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(expectedItem));
@@ -262,7 +374,7 @@ public class ItemServiceTest {
     }
 
     @Test
-    void getItemsByRequestId_whenInvoked_thenReturnList() {
+    void getItemsByRequestIds_whenInvoked_thenItemsGroupedByRequest() {
         ItemRequest request = new ItemRequest(
             1L,
             "want this",
@@ -272,23 +384,66 @@ public class ItemServiceTest {
 
         expectedItem.setRequest(request);
         List<ItemDtoInRequest> expected = List.of(ItemMapper.toItemDtoInRequest(expectedItem));
-        when(itemRepository.findByRequestId(1L)).thenReturn(List.of(expectedItem));
+        when(itemRepository.findItemsInRequests(List.of(1L, 2L))).thenReturn(expected);
 
-        List<ItemDtoInRequest> actual = itemService.getItemsByRequestId(1L);
+        Map<Long, List<ItemDtoInRequest>> grouped = itemService.getItemsByRequestIds(List.of(1L, 2L));
+        List<ItemDtoInRequest> actual = grouped.get(1L);
 
         assertEquals(actual.size(), expected.size());
         assertEquals(actual.get(0).getDescription(), expected.get(0).getDescription());
         assertEquals(actual.get(0).getRequestId(), expected.get(0).getRequestId());
         assertEquals(actual.get(0).getName(), expected.get(0).getName());
         assertEquals(actual.get(0).getAvailable(), expected.get(0).getAvailable());
+        assertFalse(grouped.containsKey(2L));
+        verify(itemRepository, times(1)).findItemsInRequests(anyCollection());
     }
 
     @Test
     void hasUserZeroItems_whenZero_thenReturnTrue() {
-        List<Item> items = List.of();
-        when(itemRepository.findAll()).thenReturn(items);
+        when(ownerItemCountCache.hasItems(2L)).thenReturn(false);
         boolean actual = itemService.hasUserZeroItems(2L);
 
         assertTrue(actual);
+        verify(itemRepository, never()).findAll();
+    }
+
+    @Test
+    void saveItem_whenInvoked_thenOwnerItemCountEvicted() {
+        when(itemRepository.save(any())).thenReturn(expectedItem);
+
+        itemService.save(userId, ItemMapper.toItemDto(expectedItem));
+
+        verify(ownerItemCountCache).evict(userId);
+    }
+
+    @Test
+    void findItems_whenCommentsFound_thenCommentsLoadedOnceForPage() {
+        Item otherItem = new Item(2L, "saw", "sharp saw", true, userId, null);
+        Pageable pageable = PageRequest.of(0, 10);
+        when(itemRepository.findByOwner(userId, pageable)).thenReturn(List.of(otherItem, expectedItem));
+        when(commentRepository.findAllByItemIdIn(List.of(itemId, otherItem.getId())))
+            .thenReturn(List.of(expectedComment));
+
+        List<ItemDto> actual = new ArrayList<>(itemService.findAll(userId, 0, 10));
+
+        assertEquals(2, actual.size());
+        assertEquals(itemId, actual.get(0).getId());
+        assertEquals(expectedComment.getText(), actual.get(0).getComments().get(0).getText());
+        assertTrue(actual.get(1).getComments().isEmpty());
+        verify(commentRepository, times(1)).findAllByItemIdIn(anyCollection());
+        verify(commentRepository, never()).findAllByItemId(anyLong());
+        verify(bookingService, times(1)).fillItemsWithBookings(anyCollection());
+    }
+
+    private ItemVersionView toVersionView() {
+        return new SpelAwareProxyProjectionFactory().createProjection(ItemVersionView.class, Map.of(
+            "owner", userId,
+            "version", 2L,
+            "nextBookingStart", LocalDateTime.of(2030, 1, 1, 10, 0)
+        ));
+    }
+
+    private void runRetriedInline() {
+        when(optimisticRetry.execute(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OwnerItemCountCacheTest {
+    private static final long MAX_OWNERS = 2;
+    private static final long TTL_MILLIS = 60_000;
+
+    @Mock
+    private ItemRepository itemRepository;
+    private final AtomicLong ticker = new AtomicLong();
+    private OwnerItemCountCache ownerItemCountCache;
+
+    @BeforeEach
+    void init() {
+        ownerItemCountCache = new OwnerItemCountCache(itemRepository, MAX_OWNERS, TTL_MILLIS, ticker::get);
+    }
+
+    @Test
+    void hasItems_whenCalledTwice_thenCountQueriedOnce() {
+        when(itemRepository.countByOwner(1L)).thenReturn(3L);
+
+        assertTrue(ownerItemCountCache.hasItems(1L));
+        assertTrue(ownerItemCountCache.hasItems(1L));
+
+        verify(itemRepository, times(1)).countByOwner(1L);
+    }
+
+    @Test
+    void hasItems_whenEvicted_thenCountQueriedAgain() {
+        when(itemRepository.countByOwner(1L)).thenReturn(0L, 1L);
+
+        assertFalse(ownerItemCountCache.hasItems(1L));
+        ownerItemCountCache.evict(1L);
+        assertTrue(ownerItemCountCache.hasItems(1L));
+
+        verify(itemRepository, times(2)).countByOwner(1L);
+    }
+
+    @Test
+    void hasItems_whenTtlPassed_thenCountQueriedAgain() {
+        when(itemRepository.countByOwner(1L)).thenReturn(0L, 1L);
+
+        assertFalse(ownerItemCountCache.hasItems(1L));
+        ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(TTL_MILLIS));
+        assertTrue(ownerItemCountCache.hasItems(1L));
+
+        verify(itemRepository, times(2)).countByOwner(1L);
+    }
+
+    @Test
+    void getCount_whenMoreOwnersThanMaximum_thenOldestDropped() {
+        when(itemRepository.countByOwner(anyLong())).thenReturn(1L);
+
+        for (long ownerId = 1; ownerId <= 10; ownerId++) {
+            ownerItemCountCache.getCount(ownerId);
+        }
+
+        assertTrue(ownerItemCountCache.size() <= MAX_OWNERS);
+    }
+}
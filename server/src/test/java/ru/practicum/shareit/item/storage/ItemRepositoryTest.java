@@ -4,12 +4,18 @@ import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.*;
 import org.springframework.data.domain.PageRequest;
-import ru.practicum.shareit.item.model.Item;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.model.*;
+import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.model.*;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest(properties = "db.name = test")
 public class ItemRepositoryTest {
@@ -57,4 +63,90 @@ public class ItemRepositoryTest {
         assertEquals(1, actual.size());
         assertEquals("tool", actual.get(0).getName());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void search_whenTextInsideWord_thenItemReturned() {
+        this.entityManager.persist(user);
+        this.entityManager.persist(foundItem);
+        this.entityManager.persist(incorrectItem);
+        List<Item> actual = itemRepository.search("OO", PageRequest.of(0, 10));
+
+        assertEquals(1, actual.size());
+        assertEquals(foundItem.getId(), actual.get(0).getId());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void search_whenNameMatchesButItemUnavailable_thenItemNotReturned() {
+        incorrectItem.setName("broken tool");
+        incorrectItem.setAvailable(false);
+        this.entityManager.persist(user);
+        this.entityManager.persist(foundItem);
+        this.entityManager.persist(incorrectItem);
+        List<Item> actual = itemRepository.search("TOOL", PageRequest.of(0, 10));
+
+        assertEquals(1, actual.size());
+        assertEquals(foundItem.getId(), actual.get(0).getId());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void findItemsInRequests() {
+        this.entityManager.persist(user);
+        ItemRequest request = this.entityManager.persist(new ItemRequest(null, "want tool", user, LocalDateTime.now()));
+        foundItem.setRequest(request);
+        foundItem.setOwner(user.getId());
+        incorrectItem.setOwner(user.getId());
+        this.entityManager.persist(foundItem);
+        this.entityManager.persist(incorrectItem);
+        List<ItemDtoInRequest> actual = itemRepository.findItemsInRequests(List.of(request.getId()));
+
+        assertEquals(1, actual.size());
+        assertEquals(foundItem.getId(), actual.get(0).getId());
+        assertEquals(request.getId(), actual.get(0).getRequestId());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void findVersionById_whenBookingsExist_thenStartOfNextBookingReturned() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        this.entityManager.persist(user);
+        foundItem.setOwner(user.getId());
+        this.entityManager.persist(foundItem);
+        this.entityManager.persist(new Booking(null, now.minusDays(2), now.minusDays(1), foundItem, user,
+            Status.APPROVED));
+        this.entityManager.persist(new Booking(null, now.plusDays(1), now.plusDays(2), foundItem, user,
+            Status.WAITING));
+        this.entityManager.flush();
+
+        ItemVersionView beforeStart = itemRepository.findVersionById(foundItem.getId(), now).orElseThrow();
+        ItemVersionView afterStart = itemRepository.findVersionById(foundItem.getId(), now.plusDays(1).plusMinutes(1))
+            .orElseThrow();
+
+        assertEquals(user.getId(), beforeStart.getOwner());
+        assertEquals(foundItem.getVersion(), beforeStart.getVersion());
+        assertEquals(now.plusDays(1), beforeStart.getNextBookingStart());
+        assertNull(afterStart.getNextBookingStart());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void incrementVersionsTouchedBy_whenUserCommented_thenItemVersionIncremented() {
+        this.entityManager.persist(user);
+        foundItem.setOwner(user.getId());
+        this.entityManager.persist(foundItem);
+        this.entityManager.persist(incorrectItem);
+        this.entityManager.persist(new Comment(null, "works", foundItem, user, LocalDateTime.now()));
+        this.entityManager.flush();
+        long foundVersion = foundItem.getVersion();
+        long otherVersion = incorrectItem.getVersion();
+
+        int updated = itemRepository.incrementVersionsTouchedBy(user.getId());
+        this.entityManager.clear();
+
+        assertEquals(1, updated);
+        assertEquals(foundVersion + 1, this.entityManager.find(Item.class, foundItem.getId()).getVersion());
+        assertEquals(otherVersion, this.entityManager.find(Item.class, incorrectItem.getId()).getVersion());
+    }
+}
@@ -107,6 +107,19 @@ public class ItemRequestControllerTest {
             .andExpect(status().isNotFound());
     }
 
+    @Test
+    void findRequest_whenETagMatches_thenStatus304() throws Exception {
+        when(requestService.getETag(anyLong(), anyLong())).thenReturn("\"request-1-0-0-0-0\"");
+
+        mockMvc.perform(get("/requests/{requestId}", 1)
+                .header("X-Sharer-User-Id", 1)
+                .header("If-None-Match", "\"request-1-0-0-0-0\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", "\"request-1-0-0-0-0\""));
+
+        verify(requestService, never()).findById(anyLong(), anyLong());
+    }
+
     @Test
     void findAll_whenInvoked_thenStatus200andReturnedRequestList() throws Exception {
         List<ItemRequestDto> expectedRequests = List.of(requestDto);
@@ -5,7 +5,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import ru.practicum.shareit.core.exception.exceptions.*;
+import ru.practicum.shareit.item.dto.ItemDtoInRequest;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.*;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -19,6 +21,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -66,6 +69,27 @@ public class ItemRequestServiceTest {
         assertThrows(RequestNotFoundException.class, () -> requestService.findById(userId, requestId));
     }
 
+    @Test
+    void getETag_whenRequestFound_thenRequestAndItemVersionsReturned() {
+        when(requestRepository.findVersionById(requestId)).thenReturn(Optional.of(
+            new SpelAwareProxyProjectionFactory().createProjection(RequestVersionView.class, Map.of(
+                "version", 0L,
+                "items", 2L,
+                "lastItemId", 5L,
+                "itemVersions", 3L
+            ))
+        ));
+
+        assertEquals("\"request-1-0-2-5-3\"", requestService.getETag(userId, requestId));
+    }
+
+    @Test
+    void getETag_whenRequestNotFound_thenExceptionReturned() {
+        when(requestRepository.findVersionById(requestId)).thenReturn(Optional.empty());
+
+        assertThrows(RequestNotFoundException.class, () -> requestService.getETag(userId, requestId));
+    }
+
     @Test
     void saveRequest_whenInvoked_thenRequestReturned() {
         when(requestRepository.save(any())).thenReturn(expectedRequest);
@@ -134,4 +158,20 @@ public class ItemRequestServiceTest {
         assertThrows(ArithmeticException.class,
             () -> requestService.findAllFromOtherUsers(2L, -1, 0));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findRequestsFromOtherUsers_whenItemsFound_thenItemsLoadedOnceForPage() {
+        ItemRequest otherRequest = new ItemRequest(2L, "better", requester, LocalDateTime.now());
+        ItemDtoInRequest item = new ItemDtoInRequest(1L, "tool", "cool tool", true, otherRequest.getId());
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("created").descending());
+        when(requestRepository.findByRequesterIdIsNot(userId, pageable)).thenReturn(List.of(expectedRequest, otherRequest));
+        when(itemService.getItemsByRequestIds(List.of(requestId, otherRequest.getId())))
+            .thenReturn(Map.of(otherRequest.getId(), List.of(item)));
+
+        List<ItemRequestDto> actual = new ArrayList<>(requestService.findAllFromOtherUsers(userId, 0, 10));
+
+        assertTrue(actual.get(0).getItems().isEmpty());
+        assertEquals(item, actual.get(1).getItems().get(0));
+        verify(itemService, times(1)).getItemsByRequestIds(anyCollection());
+    }
+}
@@ -7,9 +7,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.*;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.core.exception.exceptions.*;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserServiceInterface;
 
 import java.util.List;
@@ -89,6 +91,18 @@ public class UserControllerTest {
             .andExpect(status().isNotFound());
     }
 
+    @Test
+    public void findUser_whenETagMatches_thenStatus304() throws Exception {
+        when(userServiceInterface.getETag(anyLong())).thenReturn("\"user-1-0\"");
+
+        mockMvc.perform(get("/users/{userId}", 1)
+                .header("If-None-Match", "\"user-1-0\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", "\"user-1-0\""));
+
+        verify(userServiceInterface, never()).findById(anyLong());
+    }
+
     @Test
     public void findAll_whenInvoked_thenStatus200andReturnUserList() throws Exception {
         List<UserDto> expectedUsers = List.of(userDto);
@@ -116,6 +130,18 @@ public class UserControllerTest {
         verify(userServiceInterface, times(1)).update(any(UserDto.class), anyLong());
     }
 
+    @Test
+    public void updateUser_whenConcurrentUpdateWins_thenStatus409() throws Exception {
+        when(userServiceInterface.update(any(), anyLong()))
+            .thenThrow(new ObjectOptimisticLockingFailureException(User.class, 1L));
+
+        mockMvc.perform(
+                patch("/users/1")
+                    .content(objectMapper.writeValueAsString(userDto))
+                    .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isConflict());
+    }
+
     @Test
     public void deleteUser_whenInvoked_thenStatus200() throws Exception {
         doNothing().when(userServiceInterface).delete(anyLong());
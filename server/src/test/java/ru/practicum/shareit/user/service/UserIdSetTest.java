@@ -0,0 +1,112 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserIdSetTest {
+    private static final long MAX_ID = (1 << 20) - 1;
+    private static final long TTL_MILLIS = 60_000;
+
+    @Mock
+    private UserRepository userRepository;
+    private final AtomicLong clock = new AtomicLong();
+    private UserIdSet userIdSet;
+
+    @BeforeEach
+    void init() {
+        userIdSet = new UserIdSet(userRepository, MAX_ID, TTL_MILLIS, clock::get);
+    }
+
+    @Test
+    void exists_whenLoadedAtStartup_thenNoSelectIssued() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1L, 64L, 1_000_000L));
+
+        userIdSet.load();
+
+        assertTrue(userIdSet.exists(1L));
+        assertTrue(userIdSet.exists(64L));
+        assertTrue(userIdSet.exists(1_000_000L));
+        verify(userRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    void exists_whenUnknownIdFoundInDatabase_thenRemembered() {
+        when(userRepository.existsById(5L)).thenReturn(true);
+
+        assertTrue(userIdSet.exists(5L));
+        assertTrue(userIdSet.exists(5L));
+
+        verify(userRepository, times(1)).existsById(5L);
+    }
+
+    @Test
+    void exists_whenUnknownIdMissingInDatabase_thenCheckedEveryTime() {
+        when(userRepository.existsById(5L)).thenReturn(false);
+
+        assertFalse(userIdSet.exists(5L));
+        assertFalse(userIdSet.exists(5L));
+
+        verify(userRepository, times(2)).existsById(5L);
+    }
+
+    @Test
+    void exists_whenAddedAndRemoved_thenDatabaseAskedAfterRemoval() {
+        when(userRepository.existsById(7L)).thenReturn(false);
+
+        userIdSet.add(7L);
+        assertTrue(userIdSet.exists(7L));
+        userIdSet.remove(7L);
+
+        assertFalse(userIdSet.exists(7L));
+        assertFalse(userIdSet.contains(6L));
+        assertFalse(userIdSet.contains(-1L));
+    }
+
+    @Test
+    void exists_whenIdAboveMaxId_thenCheckedEveryTimeAndBitmapNotGrown() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1L, MAX_ID + 1, Long.MAX_VALUE));
+        when(userRepository.existsById(MAX_ID + 1)).thenReturn(true);
+        userIdSet.load();
+
+        assertTrue(userIdSet.exists(MAX_ID + 1));
+        assertTrue(userIdSet.exists(MAX_ID + 1));
+        userIdSet.add(Long.MAX_VALUE);
+
+        verify(userRepository, times(2)).existsById(MAX_ID + 1);
+        assertFalse(userIdSet.contains(Long.MAX_VALUE));
+        assertEquals(1024, userIdSet.capacity());
+    }
+
+    @Test
+    void add_whenIdNearMaxId_thenBitmapGrowsToMaxIdOnly() {
+        userIdSet.add(MAX_ID);
+
+        assertTrue(userIdSet.contains(MAX_ID));
+        assertEquals((MAX_ID >>> 6) + 1, userIdSet.capacity());
+    }
+
+    @Test
+    void exists_whenTtlPassed_thenDeletionByOtherInstanceSeen() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1L, 2L)).thenReturn(List.of(1L));
+        when(userRepository.existsById(2L)).thenReturn(false);
+        userIdSet.load();
+        assertTrue(userIdSet.exists(2L));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(TTL_MILLIS));
+
+        assertFalse(userIdSet.exists(2L));
+        assertTrue(userIdSet.exists(1L));
+        verify(userRepository, times(2)).findAllIds();
+    }
+}
@@ -4,12 +4,22 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.service.BookingCalendar;
+import ru.practicum.shareit.booking.service.BookingOverlapIndex;
+import ru.practicum.shareit.core.cache.SecondLevelCache;
 import ru.practicum.shareit.core.exception.exceptions.UserNotFoundException;
+import ru.practicum.shareit.core.transaction.OptimisticRetry;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.service.OwnerItemCountCache;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.*;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -19,6 +29,22 @@ import static org.mockito.Mockito.*;
 public class UserServiceTest {
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private OwnerItemCountCache ownerItemCountCache;
+    @Mock
+    private SecondLevelCache secondLevelCache;
+    @Mock
+    private UserIdSet userIdSet;
+    @Mock
+    private BookingOverlapIndex bookingOverlapIndex;
+    @Mock
+    private BookingCalendar bookingCalendar;
+    @Mock
+    private OptimisticRetry optimisticRetry;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private ItemRepository itemRepository;
     @InjectMocks
     private UserService userService;
     private long userId;
@@ -50,6 +76,20 @@ public class UserServiceTest {
         assertThrows(UserNotFoundException.class, () -> userService.findById(userId));
     }
 
+    @Test
+    void getETag_whenUserFound_thenVersionTagReturned() {
+        when(userRepository.findVersionById(userId)).thenReturn(Optional.of(4L));
+
+        assertEquals("\"user-1-4\"", userService.getETag(userId));
+    }
+
+    @Test
+    void getETag_whenUserNotFound_thenExceptionReturned() {
+        when(userRepository.findVersionById(userId)).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () -> userService.getETag(userId));
+    }
+
     @Test
     void saveUser_whenUserEmailValid_thenUserReturned() {
         when(userRepository.save(expectedUser)).thenReturn(expectedUser);
@@ -60,10 +100,12 @@ public class UserServiceTest {
         assertEquals(expectedUser.getName(), actual.getName());
         assertEquals(expectedUser.getEmail(), actual.getEmail());
         verify(userRepository).save(expectedUser);
+        verify(userIdSet).add(userId);
     }
 
     @Test
     void updateUser_whenUserFound_thenUserReturned() {
+        runRetriedInline();
         User updatedUser = new User();
         updatedUser.setName("Upd");
         updatedUser.setEmail("upd@mail.ru");
@@ -76,10 +118,12 @@ public class UserServiceTest {
 
         assertEquals("Upd", savedUser.getName());
         assertEquals("upd@mail.ru", savedUser.getEmail());
+        verify(itemRepository).incrementVersionsTouchedBy(userId);
     }
 
     @Test
     void updateUser_whenNameAndEmailAreBlank_thenUserReturned() {
+        runRetriedInline();
         User updatedUser = new User();
         updatedUser.setName("");
         updatedUser.setEmail("");
@@ -92,10 +136,12 @@ public class UserServiceTest {
 
         assertEquals("test", savedUser.getName());
         assertEquals("test@mail.ru", savedUser.getEmail());
+        verify(itemRepository, never()).incrementVersionsTouchedBy(anyLong());
     }
 
     @Test
     void updateUser_whenNameAndEmailAreNull_thenUserReturned() {
+        runRetriedInline();
         User updatedUser = new User();
         when(userRepository.findById(userId)).thenReturn(Optional.of(expectedUser));
 
@@ -110,6 +156,7 @@ public class UserServiceTest {
 
     @Test
     void updateUser_whenUserNotFound_thenExceptionReturned() {
+        runRetriedInline();
         when(userRepository.findById(userId)).thenReturn(Optional.empty());
 
         assertThrows(UserNotFoundException.class, () -> userService.update(UserMapper.toUserDto(expectedUser), userId));
@@ -143,7 +190,30 @@ public class UserServiceTest {
 
         userService.delete(userId);
 
+        verify(itemRepository).incrementVersionsTouchedBy(userId);
         verify(userRepository).deleteById(userId);
+        verify(ownerItemCountCache).evict(userId);
+        verify(secondLevelCache).evictAll(Item.class, ItemRequest.class);
+        verify(userIdSet).remove(userId);
+        verify(bookingOverlapIndex).evictAll();
+        verify(bookingCalendar).evictAll();
+        verify(itemSearchEngine).rebuild();
+    }
+
+    @Test
+    void checkUserExists_whenIdKnown_thenNoSelectIssued() {
+        when(userIdSet.exists(userId)).thenReturn(true);
+
+        userService.checkUserExists(userId);
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void checkUserExists_whenUserNotFound_thenExceptionReturned() {
+        when(userIdSet.exists(userId)).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class, () -> userService.checkUserExists(userId));
     }
 
     @Test
@@ -152,4 +222,8 @@ public class UserServiceTest {
 
         assertThrows(UserNotFoundException.class, () -> userService.delete(userId));
     }
-}
\ No newline at end of file
+
+    private void runRetriedInline() {
+        when(optimisticRetry.execute(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+    }
+}